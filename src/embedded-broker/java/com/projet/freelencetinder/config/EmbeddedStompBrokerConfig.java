@@ -0,0 +1,43 @@
+package com.projet.freelencetinder.config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Broker STOMP local (ActiveMQ Artemis embarqué) pour essayer le mode RELAY sans
+ * infrastructure : profil Maven embedded-broker uniquement, jamais en production.
+ *
+ * Deux nœuds sur un poste :
+ *   ./mvnw -Pembedded-broker spring-boot:run -Dspring-boot.run.arguments=--stomp.broker.mode=RELAY
+ *   ./mvnw spring-boot:run -Dspring-boot.run.arguments="--stomp.broker.mode=RELAY --server.port=8081"
+ * Le broker démarre à la création du bean, avant la connexion du relais (démarrage du contexte).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "stomp.broker", name = "mode", havingValue = "RELAY")
+public class EmbeddedStompBrokerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedStompBrokerConfig.class);
+
+    @Bean(destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker(StompBrokerProperties props) throws Exception {
+        // préfixes STOMP -> routage Artemis : /queue/ = anycast, /topic/ = multicast
+        String acceptor = "tcp://" + props.getRelayHost() + ":" + props.getRelayPort()
+                + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/";
+
+        ConfigurationImpl config = new ConfigurationImpl();
+        config.setPersistenceEnabled(false);
+        config.setSecurityEnabled(false);
+        config.addAcceptorConfiguration("stomp", acceptor);
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(config);
+        broker.start();
+        log.info("[EmbeddedStompBroker] Artemis STOMP démarré sur {}:{}", props.getRelayHost(), props.getRelayPort());
+        return broker;
+    }
+}
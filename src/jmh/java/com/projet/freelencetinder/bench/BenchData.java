@@ -0,0 +1,127 @@
+package com.projet.freelencetinder.bench;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.projet.freelencetinder.catalog.CanonicalSkills;
+import com.projet.freelencetinder.catalog.CompetenceRegistry;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.servcie.MissionSkillIndex.IndexedMission;
+
+/**
+ * Jeux de données synthétiques (graine fixe : mêmes données d'un run à l'autre).
+ *
+ * - compétences tirées du catalogue, avec ~10 % d'alias ("js", "k8s"...) et ~5 % de
+ *   compétences hors catalogue, comme les saisies réelles ;
+ * - catégories, budgets, dates de publication (< 30 j) et dates limites (< 45 j) variés.
+ */
+final class BenchData {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 15, 10, 30);
+
+    private static final List<String> ALIAS = List.of("js", "ts", "k8s", "react.js", "nodejs", "postgres", "photoshop");
+
+    private BenchData() {
+    }
+
+    static List<String> randomSkills(Random rnd, int count) {
+        List<String> catalogue = CompetenceRegistry.TOUTES_LES_COMPETENCES;
+        Set<String> out = new LinkedHashSet<>();
+        while (out.size() < count) {
+            int dice = rnd.nextInt(100);
+            if (dice < 5) out.add("Outil maison " + rnd.nextInt(500));
+            else if (dice < 15) out.add(ALIAS.get(rnd.nextInt(ALIAS.size())));
+            else out.add(catalogue.get(rnd.nextInt(catalogue.size())));
+        }
+        return new ArrayList<>(out);
+    }
+
+    static Mission[] missions(int n, long seed) {
+        Random rnd = new Random(seed);
+        Mission.Categorie[] categories = Mission.Categorie.values();
+        Utilisateur client = freelance(0L, rnd);
+        client.setTypeUtilisateur(Utilisateur.TypeUtilisateur.CLIENT);
+
+        Mission[] out = new Mission[n];
+        for (int i = 0; i < n; i++) {
+            Mission m = new Mission();
+            m.setId((long) i + 1);
+            m.setTitre("Mission " + (i + 1));
+            m.setClient(client);
+            m.setCategorie(categories[rnd.nextInt(categories.length)]);
+            m.setStatut(Mission.Statut.EN_ATTENTE);
+            m.setBudget(BigDecimal.valueOf(50 + rnd.nextInt(5_000)));
+            m.setDevise("TND");
+            m.setDatePublication(NOW.minusMinutes(rnd.nextInt(60 * 24 * 30)));
+            if (rnd.nextInt(4) != 0) m.setDateLimiteCandidature(NOW.toLocalDate().plusDays(rnd.nextInt(45)));
+            m.setCompetencesRequises(new LinkedHashSet<>(randomSkills(rnd, 1 + rnd.nextInt(6))));
+            out[i] = m;
+        }
+        return out;
+    }
+
+    static IndexedMission[] indexed(Mission[] missions) {
+        IndexedMission[] out = new IndexedMission[missions.length];
+        for (int i = 0; i < missions.length; i++) {
+            Mission m = missions[i];
+            out[i] = new IndexedMission(m.getId(), m.getClient().getId(), m.getCategorie(), m.getBudget(),
+                    m.getDatePublication(), m.getDateLimiteCandidature(),
+                    m.getCompetencesRequises(), CanonicalSkills.of(m.getCompetencesRequises()));
+        }
+        return out;
+    }
+
+    static Utilisateur[] freelances(int n, long seed) {
+        Random rnd = new Random(seed);
+        Utilisateur[] out = new Utilisateur[n];
+        for (int i = 0; i < n; i++) out[i] = freelance((long) i + 1, rnd);
+        return out;
+    }
+
+    private static Utilisateur freelance(Long id, Random rnd) {
+        Utilisateur u = new Utilisateur();
+        u.setId(id);
+        u.setTypeUtilisateur(Utilisateur.TypeUtilisateur.FREELANCE);
+        u.setNom("Nom" + id);
+        u.setPrenom("Prenom" + id);
+        u.setEmail("f" + id + "@bench.tn");
+        u.setLocalisation("Tunis");
+        u.setNiveauExperience(Utilisateur.NiveauExperience.values()[rnd.nextInt(3)]);
+        u.setTarifHoraire(rnd.nextInt(5) == 0 ? null : 10.0 + rnd.nextInt(90));
+        u.setCompetences(new LinkedHashSet<>(randomSkills(rnd, 2 + rnd.nextInt(10))));
+        return u;
+    }
+
+    static CanonicalSkills[] canonical(Utilisateur[] users) {
+        CanonicalSkills[] out = new CanonicalSkills[users.length];
+        for (int i = 0; i < users.length; i++) out[i] = CanonicalSkills.of(users[i].getCompetences());
+        return out;
+    }
+
+    /**
+     * Repository Spring Data simulé : seules les méthodes nommées sont servies,
+     * les autres lèvent UnsupportedOperationException (le benchmark ne doit pas y passer).
+     */
+    static <R> R stubRepository(Class<R> type, String method, Function<Object[], Object> answer) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (p, m, args) -> {
+            if (m.getDeclaringClass() == Object.class) {
+                return switch (m.getName()) {
+                    case "hashCode" -> System.identityHashCode(p);
+                    case "equals" -> p == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            if (!m.getName().equals(method)) throw new UnsupportedOperationException(m.toString());
+            return answer.apply(args);
+        });
+        return type.cast(proxy);
+    }
+}
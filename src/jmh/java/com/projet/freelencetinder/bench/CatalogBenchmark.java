@@ -0,0 +1,98 @@
+package com.projet.freelencetinder.bench;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.projet.freelencetinder.catalog.CompetenceRegistry;
+import com.projet.freelencetinder.models.Mission;
+
+/**
+ * Lookups du catalogue de compétences (CompetenceRegistry), une entrée par opération.
+ * Les entrées tournent sur un tableau pré-tiré pour ne pas mesurer une seule clé chaude.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogBenchmark {
+
+    private static final int INPUTS = 1024; // puissance de 2 : index par masque
+
+    private final String[] canoniques = new String[INPUTS];
+    private final String[] saisies = new String[INPUTS];   // casse / accents / alias / inconnues
+    private final String[] prefixes = new String[INPUTS];
+    private final Set<Mission.Categorie>[] categories = newCategoriesArray();
+    private int i;
+
+    @SuppressWarnings("unchecked")
+    private static Set<Mission.Categorie>[] newCategoriesArray() {
+        return new Set[INPUTS];
+    }
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(3L);
+        List<String> all = CompetenceRegistry.TOUTES_LES_COMPETENCES;
+        Mission.Categorie[] cats = Mission.Categorie.values();
+        for (int k = 0; k < INPUTS; k++) {
+            String c = all.get(rnd.nextInt(all.size()));
+            canoniques[k] = c;
+            saisies[k] = switch (rnd.nextInt(4)) {
+                case 0 -> " " + c.toUpperCase() + " ";
+                case 1 -> BenchData.randomSkills(rnd, 1).get(0);
+                case 2 -> "Outil maison " + k;
+                default -> c.toLowerCase();
+            };
+            prefixes[k] = c.substring(0, Math.min(c.length(), 1 + rnd.nextInt(3)));
+            Set<Mission.Categorie> set = EnumSet.of(cats[rnd.nextInt(cats.length)]);
+            if (rnd.nextBoolean()) set.add(cats[rnd.nextInt(cats.length)]);
+            categories[k] = set;
+        }
+    }
+
+    private int next() {
+        return i++ & (INPUTS - 1);
+    }
+
+    @Benchmark
+    public String toCanonicalOrNull_exact() {
+        return CompetenceRegistry.toCanonicalOrNull(canoniques[next()]);
+    }
+
+    @Benchmark
+    public String toCanonicalOrNull_normalized() {
+        return CompetenceRegistry.toCanonicalOrNull(saisies[next()]);
+    }
+
+    @Benchmark
+    public List<String> searchByPrefix() {
+        return CompetenceRegistry.searchByPrefix(prefixes[next()], null);
+    }
+
+    @Benchmark
+    public List<String> searchByPrefix_categories() {
+        int k = next();
+        return CompetenceRegistry.searchByPrefix(prefixes[k], categories[k]);
+    }
+
+    @Benchmark
+    public List<String> getByCategories() {
+        return CompetenceRegistry.getByCategories(categories[next()]);
+    }
+}
@@ -0,0 +1,120 @@
+package com.projet.freelencetinder.bench;
+
+import java.time.Clock;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Pageable;
+
+import com.projet.freelencetinder.config.SwipeIngestionProperties;
+import com.projet.freelencetinder.dto.FreelanceSummaryAssembler;
+import com.projet.freelencetinder.dto.FreelanceSummaryAssembler.ProfileCollections;
+import com.projet.freelencetinder.dto.SwipeFeedPageDTO;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.CompetenceService;
+import com.projet.freelencetinder.servcie.SwipeIngestionQueue;
+import com.projet.freelencetinder.servcie.SwipeService;
+
+/**
+ * Mappings DTO des cartes, score par carte (OperationsPerInvocation = taille du jeu).
+ *
+ * - missionSummary   : SwipeService.getSwipeFeed page par page (toSummaryDTO + ClientInfoDTO),
+ *                      repositories simulés : seul le mapping est mesuré ;
+ * - freelanceSummary : FreelanceSummaryAssembler.toSummary avec collections déjà groupées,
+ *                      comme après FreelanceSummaryBulkAssembler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int PAGE = 100; // = MAX_FEED_PAGE_SIZE
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private SwipeService swipeService;
+    private Utilisateur[] freelances;
+    private ProfileCollections[] collections;
+
+    /* position courante : chaque invocation reprend là où la précédente s'est arrêtée */
+    private Long feedCursor;
+    private int nextFreelance;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Mission[] missions = BenchData.missions(size, 1L);
+        freelances = BenchData.freelances(size, 2L);
+
+        Utilisateur viewer = freelances[0];
+        UtilisateurRepository users = BenchData.stubRepository(UtilisateurRepository.class, "findById",
+                args -> Optional.of(viewer));
+        // keyset : ids 1..size dans l'ordre, cursor = dernier id reçu
+        MissionRepository missionRepository = BenchData.stubRepository(MissionRepository.class, "findSwipeFeed",
+                args -> {
+                    int from = args[2] == null ? 0 : ((Long) args[2]).intValue();
+                    int to = Math.min(missions.length, from + ((Pageable) args[4]).getPageSize());
+                    return List.of(missions).subList(from, to);
+                });
+        // file d'ingestion vide : le feed y vérifie les swipes en attente
+        SwipeIngestionQueue ingestionQueue = new SwipeIngestionQueue(null, new SwipeIngestionProperties(), null);
+        swipeService = new SwipeService(missionRepository, users, null, null, null, null,
+                new CompetenceService(), null, null, null, null, null, null, ingestionQueue, null, null, null,
+                Clock.fixed(BenchData.NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+        collections = new ProfileCollections[size];
+        for (int i = 0; i < size; i++) {
+            Utilisateur u = freelances[i];
+            collections[i] = new ProfileCollections(
+                    new LinkedHashSet<>(u.getCompetences()), new ArrayList<>(), new LinkedHashSet<>(),
+                    new ArrayList<>(), new ArrayList<>(), new EnumMap<>(Utilisateur.Langue.class), new HashMap<>());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void missionSummary(Blackhole bh) {
+        // 1000 cartes par invocation (10 pages), tout le jeu est parcouru au fil des invocations
+        for (int page = 0; page < 1000 / PAGE; page++) {
+            SwipeFeedPageDTO p = swipeService.getSwipeFeed(freelances[0].getId(), null, feedCursor, PAGE);
+            bh.consume(p);
+            feedCursor = p.isHasMore() ? p.getNextCursor() : null;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void freelanceSummary(Blackhole bh) {
+        for (int k = 0; k < 1000; k++) {
+            int i = nextFreelance;
+            nextFreelance = (i + 1) % size;
+            bh.consume(FreelanceSummaryAssembler.toSummary(freelances[i], collections[i]));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.projet.freelencetinder.bench;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.projet.freelencetinder.catalog.CanonicalSkills;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.servcie.MissionScoring;
+import com.projet.freelencetinder.servcie.MissionSkillIndex.IndexedMission;
+import com.projet.freelencetinder.servcie.TimeSnapshot;
+
+/**
+ * Moteur de matching : un passage complet sur le jeu de données par opération.
+ *
+ * - scoreMissions      : MissionScoring.score (ex SwipeService.scoreMissionPourFreelance),
+ *                        un freelance contre toutes les missions ;
+ * - overlapMissions    : CanonicalSkills.intersects (ex hasSkillOverlap), un freelance
+ *                        contre toutes les missions ;
+ * - overlapFreelances  : même test vu du client, une mission contre tous les freelances ;
+ * - canonicalize       : construction des bitsets depuis des saisies brutes (alias, hors catalogue).
+ * Avec -prof gc, gc.alloc.rate.norm doit rester ~0 pour les trois premiers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchingBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int size;
+
+    private IndexedMission[] missions;
+    private CanonicalSkills[] freelances;
+    private List<String>[] rawSkills;
+
+    private CanonicalSkills freelance;
+    private BigDecimal tarif;
+    private Set<Mission.Categorie> categoriesPref;
+    private TimeSnapshot snapshot;
+    private CanonicalSkills mission;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        missions = BenchData.indexed(BenchData.missions(size, 1L));
+        Utilisateur[] users = BenchData.freelances(size, 2L);
+        freelances = BenchData.canonical(users);
+        rawSkills = new List[Math.min(size, 10_000)];
+        for (int i = 0; i < rawSkills.length; i++) rawSkills[i] = List.copyOf(users[i].getCompetences());
+
+        Utilisateur viewer = users[0];
+        freelance = freelances[0];
+        tarif = MissionScoring.tarif(viewer.getTarifHoraire());
+        categoriesPref = EnumSet.of(Mission.Categorie.DEVELOPPEMENT_WEB, Mission.Categorie.DEVELOPPEMENT_MOBILE);
+        snapshot = TimeSnapshot.of(BenchData.NOW);
+        mission = missions[0].competencesCanoniques();
+    }
+
+    @Benchmark
+    public long scoreMissions() {
+        long total = 0;
+        for (IndexedMission m : missions) {
+            total += MissionScoring.score(m, tarif, freelance, categoriesPref, snapshot);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int overlapMissions() {
+        int n = 0;
+        for (IndexedMission m : missions) {
+            if (m.competencesCanoniques().intersects(freelance)) n++;
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int overlapFreelances() {
+        int n = 0;
+        for (CanonicalSkills f : freelances) {
+            if (mission.intersects(f)) n++;
+        }
+        return n;
+    }
+
+    /** Plafonné à 10k profils : mesure le coût par saisie, pas la taille du jeu. */
+    @Benchmark
+    public void canonicalize(Blackhole bh) {
+        for (List<String> raw : rawSkills) bh.consume(CanonicalSkills.of(raw));
+    }
+}
@@ -0,0 +1,111 @@
+package com.projet.freelencetinder.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Latences par endpoint (nom normalisé, ex "POST /api/swipes/mission/{id}/freelance/{id}").
+ *
+ * Toutes les mesures sont gardées (quelques centaines de milliers au plus) : percentiles exacts.
+ * Débit = requêtes / fenêtre [premier début, dernière fin] de l'endpoint.
+ */
+public class LatencyRecorder {
+
+    private static final class Endpoint {
+        long[] nanos = new long[1024];
+        int count;
+        int errors;
+        long firstStart = Long.MAX_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+
+        synchronized void add(long start, long end, boolean ok) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = end - start;
+            if (!ok) errors++;
+            firstStart = Math.min(firstStart, start);
+            lastEnd = Math.max(lastEnd, end);
+        }
+    }
+
+    public record Row(String endpoint, int count, int errors, double p50Ms, double p95Ms, double p99Ms,
+                      double maxMs, double throughputPerSec) {}
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    /** @param start valeur de System.nanoTime() avant l'appel */
+    public void record(String endpoint, long start, boolean ok) {
+        record(endpoint, start, System.nanoTime(), ok);
+    }
+
+    /** Fin mesurée ailleurs (ex : réception d'un accusé STOMP sur un autre thread). */
+    public void record(String endpoint, long start, long end, boolean ok) {
+        endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).add(start, end, ok);
+    }
+
+    public double errorRate() {
+        long total = 0, errors = 0;
+        for (Endpoint e : endpoints.values()) {
+            synchronized (e) {
+                total += e.count;
+                errors += e.errors;
+            }
+        }
+        return total == 0 ? 0 : (double) errors / total;
+    }
+
+    public List<Row> rows() {
+        List<Row> out = new ArrayList<>();
+        endpoints.forEach((name, e) -> {
+            synchronized (e) {
+                long[] sorted = Arrays.copyOf(e.nanos, e.count);
+                Arrays.sort(sorted);
+                double windowSec = (e.lastEnd - e.firstStart) / 1e9;
+                out.add(new Row(name, e.count, e.errors,
+                        ms(percentile(sorted, 50)), ms(percentile(sorted, 95)), ms(percentile(sorted, 99)),
+                        ms(sorted[sorted.length - 1]),
+                        windowSec > 0 ? e.count / windowSec : e.count));
+            }
+        });
+        return out;
+    }
+
+    public String table() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "%-62s %8s %6s %9s %9s %9s %9s %10s%n",
+                "endpoint", "count", "err", "p50 ms", "p95 ms", "p99 ms", "max ms", "req/s"));
+        for (Row r : rows()) {
+            sb.append(String.format(Locale.ROOT, "%-62s %8d %6d %9.2f %9.2f %9.2f %9.2f %10.1f%n",
+                    r.endpoint(), r.count(), r.errors(), r.p50Ms(), r.p95Ms(), r.p99Ms(), r.maxMs(),
+                    r.throughputPerSec()));
+        }
+        return sb.toString();
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        StringBuilder sb = new StringBuilder("endpoint,count,errors,p50_ms,p95_ms,p99_ms,max_ms,req_per_s\n");
+        for (Row r : rows()) {
+            sb.append(String.format(Locale.ROOT, "\"%s\",%d,%d,%.3f,%.3f,%.3f,%.3f,%.2f%n",
+                    r.endpoint(), r.count(), r.errors(), r.p50Ms(), r.p95Ms(), r.p99Ms(), r.maxMs(),
+                    r.throughputPerSec()));
+        }
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, sb);
+    }
+
+    /* rang "nearest-rank" */
+    private static long percentile(long[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
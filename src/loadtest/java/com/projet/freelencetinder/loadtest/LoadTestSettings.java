@@ -0,0 +1,35 @@
+package com.projet.freelencetinder.loadtest;
+
+/**
+ * Paramètres du banc de charge, lus en propriétés système (-Dloadtest.xxx=...).
+ *
+ * @param clients            clients seedés
+ * @param missions           missions ouvertes (réparties sur les clients)
+ * @param freelances         freelances seedés
+ * @param concurrency        utilisateurs virtuels simultanés par phase
+ * @param swipesPerFreelance cartes swipées par freelance (phase swipe)
+ * @param likeRatio          part de LIKE parmi les swipes freelance
+ * @param chatMessages       messages STOMP envoyés par conversation
+ * @param seed               graine des tirages (données et décisions reproductibles)
+ */
+public record LoadTestSettings(int clients,
+                               int missions,
+                               int freelances,
+                               int concurrency,
+                               int swipesPerFreelance,
+                               double likeRatio,
+                               int chatMessages,
+                               long seed) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.clients", 50),
+                Integer.getInteger("loadtest.missions", 1_000),
+                Integer.getInteger("loadtest.freelances", 2_000),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Integer.getInteger("loadtest.swipes-per-freelance", 20),
+                Double.parseDouble(System.getProperty("loadtest.like-ratio", "0.3")),
+                Integer.getInteger("loadtest.chat-messages", 5),
+                Long.getLong("loadtest.seed", 42L));
+    }
+}
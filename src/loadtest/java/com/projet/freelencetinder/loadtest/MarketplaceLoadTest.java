@@ -0,0 +1,304 @@
+package com.projet.freelencetinder.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projet.freelencetinder.loadtest.MarketplaceSeeder.Marketplace;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.CompetenceVectorMaintenance;
+import com.projet.freelencetinder.servcie.CustomUserDetailsService;
+import com.projet.freelencetinder.servcie.FreelanceDiscoveryIndex;
+import com.projet.freelencetinder.servcie.JwtService;
+import com.projet.freelencetinder.servcie.MissionSkillIndex;
+import com.projet.freelencetinder.servcie.MutualLikeIndex;
+
+/**
+ * Banc de charge bout-en-bout (profil Maven "loadtest", cf. pom.xml).
+ *
+ * L'application démarre sur un port aléatoire contre un PostgreSQL Testcontainers, la
+ * marketplace est seedée (MarketplaceSeeder), puis quatre phases s'enchaînent, chacune
+ * avec loadtest.concurrency utilisateurs virtuels :
+ * 1. swipe    : feed keyset + swipes freelance (SwipeController) ;
+ * 2. match    : le client lit les LIKE reçus et like le premier freelance -> match ;
+ * 3. chat     : envoi STOMP /app/chat/send (latence jusqu'à l'accusé /user/queue/ack),
+ *               historique et "vu" en REST (ChatRestController) ;
+ * 4. feedback : éligibilité, fenêtre, résumé et liste publique (FeedbackController).
+ * Rapport p50/p95/p99/débit par endpoint en console et dans target/loadtest-report.csv.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class MarketplaceLoadTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final double MAX_ERROR_RATE =
+            Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static ThreadPoolTaskScheduler stompScheduler;
+
+    @LocalServerPort int port;
+
+    @Autowired UtilisateurRepository utilisateurRepository;
+    @Autowired MissionRepository missionRepository;
+    @Autowired PasswordEncoder passwordEncoder;
+    @Autowired JwtService jwtService;
+    @Autowired CustomUserDetailsService userDetailsService;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired CompetenceVectorMaintenance vectors;
+    @Autowired MissionSkillIndex missionSkillIndex;
+    @Autowired FreelanceDiscoveryIndex freelanceDiscoveryIndex;
+    @Autowired MutualLikeIndex mutualLikeIndex;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final Map<Long, String> tokens = new ConcurrentHashMap<>();
+
+    private record Match(Long conversationId, Long missionId, Long clientId, Long freelanceId) {}
+
+    @BeforeAll
+    static void startScheduler() {
+        stompScheduler = new ThreadPoolTaskScheduler();
+        stompScheduler.setPoolSize(2);
+        stompScheduler.setThreadNamePrefix("loadtest-stomp-");
+        stompScheduler.initialize();
+    }
+
+    @AfterAll
+    static void stopScheduler() {
+        stompScheduler.shutdown();
+    }
+
+    @Test
+    void marketplaceUnderLoad() throws Exception {
+        LoadTestSettings s = LoadTestSettings.fromSystemProperties();
+        Marketplace mp = new MarketplaceSeeder(utilisateurRepository, missionRepository, passwordEncoder).seed(s);
+
+        // les index mémoire ont été construits au démarrage, base vide : on les recharge
+        vectors.onReady();
+        missionSkillIndex.rebuild();
+        freelanceDiscoveryIndex.rebuild();
+        mutualLikeIndex.rebuild();
+        // JWT générés hors mesure (pas de BCrypt / login dans les latences)
+        mp.emails().forEach((id, email) -> {
+            UserDetails u = userDetailsService.loadUserByUsername(email);
+            tokens.put(id, jwtService.generateAccessToken(
+                    new UsernamePasswordAuthenticationToken(u, null, u.getAuthorities())));
+        });
+
+        long t0 = System.nanoTime();
+        runConcurrently(s.concurrency(), mp.freelances(), f -> swipePhase(s, f));
+        runConcurrently(s.concurrency(), mp.missions(), m -> matchPhase(m, mp.clientParMission().get(m)));
+
+        List<Match> matches = jdbc.query(
+                "select id, mission_id, client_id, freelance_id from conversation",
+                (rs, i) -> new Match(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+        assertFalse(matches.isEmpty(), "aucun match produit : vérifier loadtest.like-ratio / les compétences");
+
+        WebSocketStompClient stomp = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stomp.setMessageConverter(new MappingJackson2MessageConverter());
+        stomp.setTaskScheduler(stompScheduler);
+        runConcurrently(s.concurrency(), matches, m -> chatPhase(s, stomp, m));
+        runConcurrently(s.concurrency(), matches, this::feedbackPhase);
+        double totalSec = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("%n[loadtest] %s%n[loadtest] %d matchs, %.1f s au total%n%s%n",
+                s, matches.size(), totalSec, recorder.table());
+        recorder.writeCsv(Path.of("target", "loadtest-report.csv"));
+
+        assertTrue(recorder.errorRate() <= MAX_ERROR_RATE,
+                "taux d'erreur " + recorder.errorRate() + " > " + MAX_ERROR_RATE);
+    }
+
+    /* ===================== Phases ===================== */
+
+    private void swipePhase(LoadTestSettings s, Long freelanceId) throws Exception {
+        Random rnd = new Random(s.seed() ^ freelanceId);
+        JsonNode page = call("GET /api/swipes/feed", get(
+                "/api/swipes/feed?freelanceId=" + freelanceId + "&size=" + s.swipesPerFreelance(), freelanceId));
+        if (page == null) return;
+        for (JsonNode card : page.path("items")) {
+            String decision = rnd.nextDouble() < s.likeRatio() ? "LIKE" : "DISLIKE";
+            call("POST /api/swipes/mission/{id}/freelance/{id}", post(
+                    "/api/swipes/mission/" + card.path("id").asLong() + "/freelance/" + freelanceId,
+                    Map.of("decision", decision, "dwellTimeMs", 500 + rnd.nextInt(5_000)), freelanceId));
+        }
+    }
+
+    private void matchPhase(Long missionId, Long clientId) throws Exception {
+        JsonNode likes = call("GET /api/swipes/mission/{id}/likes", get(
+                "/api/swipes/mission/" + missionId + "/likes?clientId=" + clientId, clientId));
+        if (likes == null || likes.isEmpty()) return;
+        long freelanceId = likes.get(0).path("id").asLong();
+        call("POST /api/swipes/mission/{id}/client/{id}/freelance/{id}", post(
+                "/api/swipes/mission/" + missionId + "/client/" + clientId + "/freelance/" + freelanceId,
+                Map.of("decision", "LIKE"), clientId));
+    }
+
+    private void chatPhase(LoadTestSettings s, WebSocketStompClient stomp, Match m) throws Exception {
+        WebSocketHttpHeaders handshake = new WebSocketHttpHeaders();
+        handshake.setBearerAuth(tokens.get(m.freelanceId()));
+        StompSession session = stomp
+                .connectAsync("http://localhost:" + port + "/ws", handshake, new StompSessionHandlerAdapter() {})
+                .get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        try {
+            BlockingQueue<Long> acks = new LinkedBlockingQueue<>();
+            session.setAutoReceipt(true);
+            BlockingQueue<Boolean> subscribed = new LinkedBlockingQueue<>();
+            session.subscribe("/user/queue/ack", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    acks.add(System.nanoTime());
+                }
+            }).addReceiptTask(() -> subscribed.add(true));
+            // SUBSCRIBE et SEND peuvent être traités par des threads différents côté serveur
+            assertNotNull(subscribed.poll(TIMEOUT.toSeconds(), TimeUnit.SECONDS), "abonnement STOMP non confirmé");
+
+            for (int i = 0; i < s.chatMessages(); i++) {
+                long start = System.nanoTime();
+                session.send("/app/chat/send", Map.of(
+                        "conversationId", m.conversationId(), "type", "TEXT", "content", "Message de charge " + i));
+                Long end = acks.poll(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+                recorder.record("STOMP /app/chat/send -> /user/queue/ack", start,
+                        end != null ? end : System.nanoTime(), end != null);
+            }
+        } finally {
+            session.disconnect();
+        }
+
+        call("GET /api/chat/conversations/{id}/messages", get(
+                "/api/chat/conversations/" + m.conversationId() + "/messages?size=20", m.clientId()));
+        call("PUT /api/chat/conversations/{id}/seen", request(
+                "/api/chat/conversations/" + m.conversationId() + "/seen", m.clientId())
+                .PUT(HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    private void feedbackPhase(Match m) throws Exception {
+        call("GET /api/feedback/eligibility", get("/api/feedback/eligibility?missionId=" + m.missionId(), m.clientId()));
+        call("GET /api/feedback/window", get("/api/feedback/window?missionId=" + m.missionId(), m.clientId()));
+        call("GET /api/feedback/summary", get(
+                "/api/feedback/summary?targetId=" + m.freelanceId() + "&audience=FREELANCE", m.clientId()));
+        call("GET /api/feedback/public", get(
+                "/api/feedback/public?targetId=" + m.freelanceId() + "&audience=FREELANCE", m.clientId()));
+    }
+
+    /* ===================== HTTP ===================== */
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + tokens.get(userId));
+    }
+
+    private HttpRequest get(String path, Long userId) {
+        return request(path, userId).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body, Long userId) throws IOException {
+        return request(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)))
+                .build();
+    }
+
+    /** Appel mesuré ; corps JSON si 2xx non vide, sinon null (compté en erreur si non 2xx). */
+    private JsonNode call(String endpoint, HttpRequest req) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> res = http.send(req, HttpResponse.BodyHandlers.ofString());
+            boolean ok = res.statusCode() / 100 == 2;
+            recorder.record(endpoint, start, ok);
+            if (!ok) {
+                System.err.printf("[loadtest] %s -> %d %s%n", req.uri(), res.statusCode(), res.body());
+                return null;
+            }
+            return res.body().isEmpty() ? null : JSON.readTree(res.body());
+        } catch (IOException e) {
+            recorder.record(endpoint, start, false);
+            System.err.printf("[loadtest] %s -> %s%n", req.uri(), e);
+            return null;
+        }
+    }
+
+    /* ===================== Concurrence ===================== */
+
+    @FunctionalInterface
+    private interface Task<T> {
+        void run(T item) throws Exception;
+    }
+
+    /** Exécute task sur chaque élément avec un pool fixe ; attend la fin de la phase. */
+    private static <T> void runConcurrently(int concurrency, List<T> items, Task<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        try {
+            List<Future<?>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(pool.submit(() -> {
+                    task.run(item);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.projet.freelencetinder.loadtest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.projet.freelencetinder.catalog.CompetenceRegistry;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+
+/**
+ * Marketplace synthétique reproductible (graine LoadTestSettings.seed).
+ *
+ * - freelances : 1 à 2 catégories, 3 à 8 compétences tirées du catalogue de ces catégories
+ *   (CompetenceRegistry), tarif horaire 15..120 ;
+ * - missions : catégorie + 2 à 6 compétences de la catégorie, budget, date limite 3..40 j ;
+ * - un seul hash BCrypt partagé (le coût BCrypt ne doit pas dominer le seed).
+ */
+public class MarketplaceSeeder {
+
+    static final String PASSWORD = "loadtest-secret";
+    private static final int CHUNK = 500;
+
+    /** Ids seedés ; emails indexés par id pour générer les JWT. */
+    public record Marketplace(List<Long> clients,
+                              List<Long> freelances,
+                              List<Long> missions,
+                              Map<Long, Long> clientParMission,
+                              Map<Long, String> emails) {}
+
+    private final UtilisateurRepository utilisateurRepository;
+    private final MissionRepository missionRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    public MarketplaceSeeder(UtilisateurRepository utilisateurRepository,
+                             MissionRepository missionRepository,
+                             PasswordEncoder passwordEncoder) {
+        this.utilisateurRepository = utilisateurRepository;
+        this.missionRepository = missionRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public Marketplace seed(LoadTestSettings s) {
+        Random rnd = new Random(s.seed());
+        String hash = passwordEncoder.encode(PASSWORD);
+        Mission.Categorie[] categories = Mission.Categorie.values();
+        Map<Long, String> emails = new HashMap<>();
+
+        List<Utilisateur> clients = new ArrayList<>();
+        for (int i = 0; i < s.clients(); i++) {
+            Utilisateur c = user("client" + i, TypeUtilisateur.CLIENT, hash);
+            c.setTypeClient(Utilisateur.TypeClient.values()[rnd.nextInt(Utilisateur.TypeClient.values().length)]);
+            clients.add(c);
+        }
+        List<Long> clientIds = saveUsers(clients, emails);
+
+        List<Utilisateur> freelances = new ArrayList<>();
+        for (int i = 0; i < s.freelances(); i++) {
+            Utilisateur f = user("freelance" + i, TypeUtilisateur.FREELANCE, hash);
+            Set<Mission.Categorie> cats = EnumSet.of(categories[rnd.nextInt(categories.length)]);
+            if (rnd.nextInt(3) == 0) cats.add(categories[rnd.nextInt(categories.length)]);
+            f.setCategories(cats);
+            f.setCompetences(skills(rnd, cats, 3 + rnd.nextInt(6)));
+            f.setTarifHoraire(15.0 + rnd.nextInt(106));
+            f.setNiveauExperience(Utilisateur.NiveauExperience.values()[rnd.nextInt(3)]);
+            f.setLocalisation("Tunis");
+            freelances.add(f);
+        }
+        List<Long> freelanceIds = saveUsers(freelances, emails);
+
+        List<Long> missionIds = new ArrayList<>();
+        Map<Long, Long> clientParMission = new HashMap<>();
+        List<Mission> batch = new ArrayList<>(CHUNK);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < s.missions(); i++) {
+            Mission m = new Mission();
+            m.setClient(clients.get(i % clients.size()));
+            Mission.Categorie cat = categories[rnd.nextInt(categories.length)];
+            m.setCategorie(cat);
+            m.setTitre("Mission " + cat + " #" + i);
+            m.setDescription("Mission synthétique générée pour le banc de charge.");
+            m.setCompetencesRequises(skills(rnd, EnumSet.of(cat), 2 + rnd.nextInt(5)));
+            m.setBudget(BigDecimal.valueOf(200 + rnd.nextInt(9_800)));
+            m.setDevise("TND");
+            m.setStatut(Mission.Statut.EN_ATTENTE);
+            m.setDateLimiteCandidature(today.plusDays(3 + rnd.nextInt(38)));
+            m.setDelaiLivraison(today.plusDays(45 + rnd.nextInt(60)));
+            batch.add(m);
+            if (batch.size() == CHUNK || i == s.missions() - 1) {
+                for (Mission saved : missionRepository.saveAll(batch)) {
+                    missionIds.add(saved.getId());
+                    clientParMission.put(saved.getId(), saved.getClient().getId());
+                }
+                batch.clear();
+            }
+        }
+        return new Marketplace(clientIds, freelanceIds, missionIds, clientParMission, emails);
+    }
+
+    private List<Long> saveUsers(List<Utilisateur> users, Map<Long, String> emails) {
+        List<Long> ids = new ArrayList<>(users.size());
+        for (int from = 0; from < users.size(); from += CHUNK) {
+            List<Utilisateur> chunk = users.subList(from, Math.min(users.size(), from + CHUNK));
+            for (Utilisateur u : utilisateurRepository.saveAll(chunk)) {
+                ids.add(u.getId());
+                emails.put(u.getId(), u.getEmail());
+            }
+        }
+        return ids;
+    }
+
+    private static Utilisateur user(String login, TypeUtilisateur type, String hash) {
+        Utilisateur u = new Utilisateur();
+        u.setNom(login);
+        u.setPrenom("Load");
+        u.setEmail(login + "@loadtest.tn");
+        u.setMotDePasse(hash);
+        u.setTypeUtilisateur(type);
+        return u;
+    }
+
+    private static Set<String> skills(Random rnd, Set<Mission.Categorie> cats, int count) {
+        List<String> pool = CompetenceRegistry.getByCategories(cats);
+        Set<String> out = new LinkedHashSet<>();
+        while (out.size() < Math.min(count, pool.size())) {
+            out.add(pool.get(rnd.nextInt(pool.size())));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,161 @@
+package com.projet.freelencetinder.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Ensemble immuable de compétences canoniques, pour les calculs de recouvrement.
+ *
+ * - compétences du catalogue : bitset sur leur id (CompetenceRegistry.idOf) ;
+ * - compétences inconnues : conservées telles quelles (comme CompetenceService.toCanonical),
+ *   dans un tableau trié.
+ * intersects / intersectionCount ne font aucune allocation.
+ */
+public final class CanonicalSkills {
+
+    private static final long[] NO_WORDS = new long[0];
+    private static final String[] NO_UNKNOWN = new String[0];
+
+    public static final CanonicalSkills EMPTY = new CanonicalSkills(NO_WORDS, NO_UNKNOWN);
+
+    private final long[] words;
+    private final String[] unknown;
+    private final int size;
+
+    private CanonicalSkills(long[] words, String[] unknown) {
+        this.words = words;
+        this.unknown = unknown;
+        int n = unknown.length;
+        for (long w : words) n += Long.bitCount(w);
+        this.size = n;
+    }
+
+    /** Résout chaque entrée brute (alias, casse, accents) ; null ignorés. */
+    public static CanonicalSkills of(Collection<String> raw) {
+        if (raw == null || raw.isEmpty()) return EMPTY;
+        long[] words = new long[(CompetenceRegistry.TOUTES_LES_COMPETENCES.size() + 63) >>> 6];
+        TreeSet<String> unknown = null;
+        boolean any = false;
+        for (String s : raw) {
+            if (s == null) continue;
+            String canonical = CompetenceRegistry.toCanonicalOrNull(s);
+            int id = CompetenceRegistry.idOf(canonical);
+            if (id >= 0) {
+                words[id >>> 6] |= 1L << id;
+                any = true;
+            } else {
+                if (unknown == null) unknown = new TreeSet<>();
+                unknown.add(s);
+            }
+        }
+        if (!any && unknown == null) return EMPTY;
+        return new CanonicalSkills(any ? trim(words) : NO_WORDS,
+                                   unknown == null ? NO_UNKNOWN : unknown.toArray(String[]::new));
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(String canonical) {
+        int id = CompetenceRegistry.idOf(canonical);
+        if (id >= 0) {
+            int w = id >>> 6;
+            return w < words.length && (words[w] & (1L << id)) != 0L;
+        }
+        return canonical != null && Arrays.binarySearch(unknown, canonical) >= 0;
+    }
+
+    public boolean intersects(CanonicalSkills other) {
+        int n = Math.min(words.length, other.words.length);
+        for (int i = 0; i < n; i++) {
+            if ((words[i] & other.words[i]) != 0L) return true;
+        }
+        return unknown.length > 0 && other.unknown.length > 0 && countCommonUnknown(other) > 0;
+    }
+
+    public int intersectionCount(CanonicalSkills other) {
+        int n = Math.min(words.length, other.words.length);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        if (unknown.length > 0 && other.unknown.length > 0) count += countCommonUnknown(other);
+        return count;
+    }
+
+    /** Ids catalogue triés (les compétences inconnues n'ont pas d'id). */
+    public int[] ids() {
+        int n = size - unknown.length;
+        int[] out = new int[n];
+        int k = 0;
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            while (bits != 0L) {
+                out[k++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return out;
+    }
+
+    /** Noms canoniques (ordre du catalogue), puis inconnues (ordre alphabétique). */
+    public List<String> names() {
+        if (size == 0) return List.of();
+        List<String> out = new ArrayList<>(size);
+        for (int w = 0; w < words.length; w++) {
+            long bits = words[w];
+            while (bits != 0L) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(bits);
+                out.add(CompetenceRegistry.byId(id));
+                bits &= bits - 1;
+            }
+        }
+        Collections.addAll(out, unknown);
+        return out;
+    }
+
+    /* ===================== Internes ===================== */
+
+    private int countCommonUnknown(CanonicalSkills other) {
+        int i = 0, j = 0, count = 0;
+        while (i < unknown.length && j < other.unknown.length) {
+            int c = unknown[i].compareTo(other.unknown[j]);
+            if (c < 0) i++;
+            else if (c > 0) j++;
+            else { count++; i++; j++; }
+        }
+        return count;
+    }
+
+    private static long[] trim(long[] words) {
+        int n = words.length;
+        while (n > 0 && words[n - 1] == 0L) n--;
+        return n == words.length ? words : Arrays.copyOf(words, n);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CanonicalSkills other)) return false;
+        return Arrays.equals(words, other.words) && Arrays.equals(unknown, other.unknown);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(words) + Arrays.hashCode(unknown);
+    }
+
+    @Override
+    public String toString() {
+        return names().toString();
+    }
+}
@@ -24,6 +24,21 @@ public final class CompetenceRegistry {
     /** Labels optionnels FR/AR pour i18n légère: skill -> { lang -> label } */
     public static final Map<String, Map<String, String>> LABELS;
 
+    /** Trie + n-grammes + masques de catégories, précalculés une fois. */
+    private static final CompetenceSearchIndex SEARCH_INDEX;
+
+    /** forme normalisée -> clé canonique (alias prioritaires, comme l'ancien scan). */
+    private static final Map<String, String> CANONICAL_BY_NORMALIZED;
+
+    /** entrée brute déjà résolue (clés canoniques, alias bruts) : évite la normalisation. */
+    private static final Map<String, String> CANONICAL_BY_EXACT;
+
+    /** clé canonique -> id entier = rang dans TOUTES_LES_COMPETENCES. */
+    private static final Map<String, Integer> ID_BY_CANONICAL;
+
+    /** Empreinte du catalogue : change dès qu'une clé est ajoutée/retirée (les ids se décalent). */
+    public static final int CATALOG_VERSION;
+
     static {
         Map<Mission.Categorie, List<String>> tmp = new EnumMap<>(Mission.Categorie.class);
 
@@ -165,6 +180,10 @@ public final class CompetenceRegistry {
                 inverse.keySet().stream().sorted(Comparator.naturalOrder()).collect(Collectors.toList())
         );
 
+        String[] normalized = new String[TOUTES_LES_COMPETENCES.size()];
+        for (int i = 0; i < normalized.length; i++) normalized[i] = nf(TOUTES_LES_COMPETENCES.get(i));
+        SEARCH_INDEX = new CompetenceSearchIndex(TOUTES_LES_COMPETENCES, normalized, CATEGORIES_PAR_COMPETENCE);
+
         // Aliases (normalized -> canonical)
         Map<String, String> aliases = new HashMap<>();
         aliases.put(nf("js"), "JavaScript");
@@ -184,6 +203,24 @@ public final class CompetenceRegistry {
         aliases.put(nf("ci cd"), "CI/CD (GitHub Actions, GitLab CI)");
         ALIAS_TO_CANONICAL = Collections.unmodifiableMap(aliases);
 
+        // Résolution O(1) : premier canonique (ordre trié) par forme normalisée, puis alias par-dessus
+        Map<String, String> byNormalized = new HashMap<>();
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < normalized.length; i++) {
+            byNormalized.putIfAbsent(normalized[i], TOUTES_LES_COMPETENCES.get(i));
+            ids.put(TOUTES_LES_COMPETENCES.get(i), i);
+        }
+        byNormalized.putAll(aliases);
+        CANONICAL_BY_NORMALIZED = Collections.unmodifiableMap(byNormalized);
+        ID_BY_CANONICAL = Collections.unmodifiableMap(ids);
+        CATALOG_VERSION = TOUTES_LES_COMPETENCES.hashCode();
+
+        Map<String, String> exact = new HashMap<>();
+        for (String canonical : TOUTES_LES_COMPETENCES) {
+            exact.put(canonical, byNormalized.get(nf(canonical)));
+        }
+        CANONICAL_BY_EXACT = Collections.unmodifiableMap(exact);
+
         // Minimal labels FR/AR (extensible)
         Map<String, Map<String, String>> labels = new HashMap<>();
         putLabel(labels, "JavaScript", Map.of("fr", "JavaScript", "ar", "جافاسكريبت"));
@@ -210,62 +247,45 @@ public final class CompetenceRegistry {
     }
 
     /**
-     * Union dédupliquée des compétences pour un ensemble de catégories.
+     * Union dédupliquée (triée) des compétences pour un ensemble de catégories.
+     * Liste immuable, mise en cache par combinaison de catégories.
      */
     public static List<String> getByCategories(Set<Mission.Categorie> cats) {
         if (cats == null || cats.isEmpty()) return TOUTES_LES_COMPETENCES;
-        return cats.stream()
-                .filter(COMPETENCES_PAR_CATEGORIE::containsKey)
-                .flatMap(c -> COMPETENCES_PAR_CATEGORIE.get(c).stream())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
+        return SEARCH_INDEX.byCategories(cats);
     }
 
     /**
      * Recherche prefix/contains (case/accent insensitive), limitée à 100.
      * Si cats est fourni, on restreint la recherche à l'union de ces catégories.
+     * Seule la requête est normalisée : le catalogue l'est une fois pour toutes.
      */
     public static List<String> searchByPrefix(String q, Set<Mission.Categorie> cats) {
         if (q == null || q.trim().isEmpty()) return List.of();
-        String nq = nf(q);
-        List<String> base = (cats == null || cats.isEmpty()) ? TOUTES_LES_COMPETENCES : getByCategories(cats);
-
-        // Two-stage: startsWith then contains
-        List<String> starts = base.stream()
-                .filter(s -> nf(s).startsWith(nq))
-                .limit(100)
-                .collect(Collectors.toList());
-        if (starts.size() >= 100) return starts;
-
-        Set<String> already = new HashSet<>(starts);
-        for (String s : base) {
-            if (already.size() >= 100) break;
-            if (!already.contains(s) && nf(s).contains(nq)) {
-                already.add(s);
-                starts.add(s);
-            }
-        }
-        return starts;
+        return SEARCH_INDEX.search(nf(q), cats);
     }
 
     /**
      * Renvoie la clé canonique si on la connaît (via alias/équivalence), sinon null.
+     * Clé canonique exacte : lookup direct ; sinon une normalisation + un lookup.
      */
     public static String toCanonicalOrNull(String input) {
         if (input == null) return null;
-        String normalized = nf(input);
+        String exact = CANONICAL_BY_EXACT.get(input);
+        if (exact != null) return exact;
+        return CANONICAL_BY_NORMALIZED.get(nf(input));
+    }
 
-        // alias direct
-        if (ALIAS_TO_CANONICAL.containsKey(normalized)) {
-            return ALIAS_TO_CANONICAL.get(normalized);
-        }
+    /** Id entier d'une clé canonique (rang dans TOUTES_LES_COMPETENCES), -1 si inconnue. */
+    public static int idOf(String canonical) {
+        if (canonical == null) return -1;
+        Integer id = ID_BY_CANONICAL.get(canonical);
+        return id != null ? id : -1;
+    }
 
-        // match par normalisation sur les clés canoniques
-        for (String canonical : TOUTES_LES_COMPETENCES) {
-            if (nf(canonical).equals(normalized)) return canonical;
-        }
-        return null;
+    /** Clé canonique d'un id entier. */
+    public static String byId(int id) {
+        return TOUTES_LES_COMPETENCES.get(id);
     }
 
     /**
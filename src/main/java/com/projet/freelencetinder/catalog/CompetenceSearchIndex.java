@@ -0,0 +1,212 @@
+package com.projet.freelencetinder.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.projet.freelencetinder.models.Mission;
+
+/**
+ * Structure de recherche immuable sur le catalogue (construite une fois dans CompetenceRegistry).
+ *
+ * - id d'une entrée = son rang dans TOUTES_LES_COMPETENCES (ordre naturel) : parcourir
+ *   des ids croissants redonne exactement l'ordre de l'ancienne recherche ;
+ * - formes normalisées calculées une seule fois ;
+ * - trie sur la forme normalisée (starts-with), n-grammes de 1 à 3 caractères (contains) ;
+ * - masque de catégories par entrée : filtrage sans reconstruire l'union ;
+ * - union par catégories mise en cache par masque.
+ */
+final class CompetenceSearchIndex {
+
+    private static final int MAX_RESULTS = 100;
+    private static final int GRAM = 3;
+    private static final int[] NONE = new int[0];
+
+    private final List<String> entries;
+    private final String[] normalized;
+    private final long[] categoryMasks;
+    private final Node trie;
+    private final Map<String, int[]> grams;
+    private final Map<Long, List<String>> unionByMask = new ConcurrentHashMap<>();
+
+    CompetenceSearchIndex(List<String> entries,
+                          String[] normalized,
+                          Map<String, Set<Mission.Categorie>> categoriesParCompetence) {
+        this.entries = entries;
+        this.normalized = normalized;
+        this.categoryMasks = new long[entries.size()];
+
+        NodeBuilder root = new NodeBuilder();
+        Map<String, List<Integer>> gramBuilder = new HashMap<>();
+        for (int id = 0; id < entries.size(); id++) {
+            categoryMasks[id] = maskOf(categoriesParCompetence.get(entries.get(id)));
+
+            String n = normalized[id];
+            NodeBuilder node = root;
+            for (int i = 0; i < n.length(); i++) {
+                node = node.children.computeIfAbsent(n.charAt(i), c -> new NodeBuilder());
+                node.ids.add(id);
+            }
+
+            for (int len = 1; len <= GRAM; len++) {
+                for (int i = 0; i + len <= n.length(); i++) {
+                    List<Integer> posting = gramBuilder.computeIfAbsent(n.substring(i, i + len), k -> new ArrayList<>());
+                    // ids croissants : un doublon ne peut être que le dernier élément
+                    if (posting.isEmpty() || posting.get(posting.size() - 1) != id) posting.add(id);
+                }
+            }
+        }
+        this.trie = root.freeze();
+
+        Map<String, int[]> g = new HashMap<>(gramBuilder.size() * 2);
+        gramBuilder.forEach((k, v) -> g.put(k, toArray(v)));
+        this.grams = Collections.unmodifiableMap(g);
+    }
+
+    /* ===================== API (package) ===================== */
+
+    String normalized(int id) {
+        return normalized[id];
+    }
+
+    /** Union triée des compétences des catégories (cache par masque). */
+    List<String> byCategories(Set<Mission.Categorie> cats) {
+        long mask = maskOf(cats);
+        if (mask == 0L) return entries;
+        return unionByMask.computeIfAbsent(mask, m -> {
+            List<String> out = new ArrayList<>();
+            for (int id = 0; id < entries.size(); id++) {
+                if ((categoryMasks[id] & m) != 0L) out.add(entries.get(id));
+            }
+            return Collections.unmodifiableList(out);
+        });
+    }
+
+    /**
+     * starts-with puis contains, limité à 100, dans l'ordre du catalogue.
+     * {@code nq} doit déjà être normalisé (cf. CompetenceRegistry.nf).
+     */
+    List<String> search(String nq, Set<Mission.Categorie> cats) {
+        long mask = maskOf(cats);
+        List<String> out = new ArrayList<>();
+
+        if (nq.isEmpty()) { // requête réduite à des diacritiques : tout matche
+            for (int id = 0; id < entries.size() && out.size() < MAX_RESULTS; id++) {
+                if (accept(id, mask)) out.add(entries.get(id));
+            }
+            return out;
+        }
+
+        for (int id : prefixIds(nq)) {
+            if (accept(id, mask)) {
+                out.add(entries.get(id));
+                if (out.size() >= MAX_RESULTS) return out;
+            }
+        }
+
+        boolean verify = nq.length() > GRAM;
+        for (int id : containsCandidates(nq)) {
+            if (out.size() >= MAX_RESULTS) break;
+            String n = normalized[id];
+            if (!accept(id, mask) || n.startsWith(nq)) continue;
+            if (verify && !n.contains(nq)) continue;
+            out.add(entries.get(id));
+        }
+        return out;
+    }
+
+    /* ===================== Internes ===================== */
+
+    private boolean accept(int id, long mask) {
+        return mask == 0L || (categoryMasks[id] & mask) != 0L;
+    }
+
+    private int[] prefixIds(String nq) {
+        Node node = trie;
+        for (int i = 0; i < nq.length() && node != null; i++) {
+            node = node.child(nq.charAt(i));
+        }
+        return node == null ? NONE : node.ids;
+    }
+
+    /** Entrées contenant tous les n-grammes de la requête (exact si longueur <= GRAM). */
+    private int[] containsCandidates(String nq) {
+        if (nq.length() <= GRAM) return grams.getOrDefault(nq, NONE);
+
+        int[] acc = null;
+        for (int i = 0; i + GRAM <= nq.length(); i++) {
+            int[] posting = grams.get(nq.substring(i, i + GRAM));
+            if (posting == null) return NONE;
+            acc = acc == null ? posting : intersect(acc, posting);
+            if (acc.length == 0) return NONE;
+        }
+        return acc;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[k++] = a[i]; i++; j++; }
+        }
+        return k == out.length ? out : Arrays.copyOf(out, k);
+    }
+
+    private static long maskOf(Set<Mission.Categorie> cats) {
+        if (cats == null) return 0L;
+        long m = 0L;
+        for (Mission.Categorie c : cats) {
+            if (c != null) m |= 1L << c.ordinal();
+        }
+        return m;
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        int[] out = new int[ids.size()];
+        for (int i = 0; i < out.length; i++) out[i] = ids.get(i);
+        return out;
+    }
+
+    /** Nœud figé : enfants triés par caractère (recherche dichotomique), ids croissants. */
+    private static final class Node {
+        final char[] keys;
+        final Node[] children;
+        final int[] ids;
+
+        Node(char[] keys, Node[] children, int[] ids) {
+            this.keys = keys;
+            this.children = children;
+            this.ids = ids;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    private static final class NodeBuilder {
+        final TreeMap<Character, NodeBuilder> children = new TreeMap<>();
+        final List<Integer> ids = new ArrayList<>();
+
+        Node freeze() {
+            char[] keys = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> e : children.entrySet()) {
+                keys[i] = e.getKey();
+                nodes[i] = e.getValue().freeze();
+                i++;
+            }
+            return new Node(keys, nodes, toArray(ids));
+        }
+    }
+}
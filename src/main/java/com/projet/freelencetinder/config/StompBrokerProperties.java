@@ -0,0 +1,68 @@
+package com.projet.freelencetinder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Broker STOMP :
+ * - SIMPLE : broker en mémoire (comportement historique), une seule instance possible ;
+ * - RELAY  : relais vers un broker STOMP externe (ActiveMQ Artemis, RabbitMQ…) ; le registre
+ *            des sessions utilisateur est diffusé entre instances, convertAndSendToUser
+ *            atteint donc un utilisateur connecté à n'importe quel nœud. Les événements de
+ *            matching (MatchingEvents) restent locaux au nœud qui a committé : tout état par
+ *            JVM qu'ils entretiennent est désactivé et lu en base (MissionSkillIndex,
+ *            FreelanceDiscoveryIndex, MutualLikeIndex, SwipeSeenFilter, UserIdentityCache) ;
+ *            les decks STOMP revérifient en plus leurs missions périodiquement (SwipeDeckService).
+ *            ConversationMembershipCache (entrées immuables) reste actif.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stomp.broker")
+public class StompBrokerProperties {
+
+    public enum Mode { SIMPLE, RELAY }
+
+    private Mode mode = Mode.SIMPLE;
+    private String relayHost = "localhost";
+    private int relayPort = 61613;
+    private String clientLogin = "guest";
+    private String clientPasscode = "guest";
+    private String systemLogin = "guest";
+    private String systemPasscode = "guest";
+    private String virtualHost;          // RabbitMQ : vhost ; null = défaut du broker
+
+    /* Destinations partagées entre nœuds (mode RELAY) */
+    private String userRegistryBroadcast = "/topic/simp-user-registry";
+    private String userDestinationBroadcast = "/topic/unresolved-user-destination";
+
+    public boolean isRelay() { return mode == Mode.RELAY; }
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public String getRelayHost() { return relayHost; }
+    public void setRelayHost(String relayHost) { this.relayHost = relayHost; }
+
+    public int getRelayPort() { return relayPort; }
+    public void setRelayPort(int relayPort) { this.relayPort = relayPort; }
+
+    public String getClientLogin() { return clientLogin; }
+    public void setClientLogin(String clientLogin) { this.clientLogin = clientLogin; }
+
+    public String getClientPasscode() { return clientPasscode; }
+    public void setClientPasscode(String clientPasscode) { this.clientPasscode = clientPasscode; }
+
+    public String getSystemLogin() { return systemLogin; }
+    public void setSystemLogin(String systemLogin) { this.systemLogin = systemLogin; }
+
+    public String getSystemPasscode() { return systemPasscode; }
+    public void setSystemPasscode(String systemPasscode) { this.systemPasscode = systemPasscode; }
+
+    public String getVirtualHost() { return virtualHost; }
+    public void setVirtualHost(String virtualHost) { this.virtualHost = virtualHost; }
+
+    public String getUserRegistryBroadcast() { return userRegistryBroadcast; }
+    public void setUserRegistryBroadcast(String userRegistryBroadcast) { this.userRegistryBroadcast = userRegistryBroadcast; }
+
+    public String getUserDestinationBroadcast() { return userDestinationBroadcast; }
+    public void setUserDestinationBroadcast(String userDestinationBroadcast) { this.userDestinationBroadcast = userDestinationBroadcast; }
+}
@@ -0,0 +1,112 @@
+package com.projet.freelencetinder.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Santé des canaux STOMP (cf. StompChannelProperties) :
+ * - profondeur des files inbound / outbound et threads actifs ;
+ * - messages inbound traités par le thread appelant (file pleine), messages outbound abandonnés ;
+ * - sessions fermées pour lenteur (send-time-limit / send-buffer-size-limit dépassés).
+ * Journal périodique : INFO si une file n'est pas vide ou si un compteur a bougé, DEBUG sinon.
+ */
+@Component
+public class StompChannelMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(StompChannelMonitor.class);
+
+    private final Map<String, ThreadPoolTaskExecutor> pools = new ConcurrentHashMap<>();
+
+    private final AtomicLong inboundCallerRuns = new AtomicLong();
+    private final AtomicLong outboundDropped = new AtomicLong();
+    private final AtomicLong slowSessionsClosed = new AtomicLong();
+
+    private long lastTotal; // journal : uniquement le scheduler
+
+    /* ===================== Politiques de file pleine ===================== */
+
+    /** Inbound : contre-pression, le thread de la socket émettrice traite le message. */
+    public RejectedExecutionHandler inboundPolicy() {
+        return (task, executor) -> {
+            inboundCallerRuns.incrementAndGet();
+            if (!executor.isShutdown()) task.run();
+        };
+    }
+
+    /**
+     * Outbound : la diffusion ne bloque jamais ; le message est abandonné et compté. Le rejet
+     * remonte à l'appelant (l'ordre par session passe alors au message suivant au lieu
+     * d'attendre un envoi qui n'aura jamais lieu).
+     */
+    public RejectedExecutionHandler outboundPolicy() {
+        return (task, executor) -> {
+            outboundDropped.incrementAndGet();
+            throw new RejectedExecutionException("File outbound STOMP pleine");
+        };
+    }
+
+    public void watch(String name, ThreadPoolTaskExecutor pool) {
+        pools.put(name, pool);
+    }
+
+    /* ===================== Sessions lentes ===================== */
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        if (CloseStatus.SESSION_NOT_RELIABLE.equals(event.getCloseStatus())) {
+            slowSessionsClosed.incrementAndGet();
+            log.warn("[STOMP] session {} fermée : client trop lent (limite d'envoi dépassée)", event.getSessionId());
+        }
+    }
+
+    /* ===================== Lecture / journal ===================== */
+
+    public int queueDepth(String name) {
+        ThreadPoolTaskExecutor pool = pools.get(name);
+        if (pool == null) return 0;
+        ThreadPoolExecutor tpe = pool.getThreadPoolExecutor();
+        return tpe.getQueue().size();
+    }
+
+    public long getInboundCallerRuns() { return inboundCallerRuns.get(); }
+    public long getOutboundDropped() { return outboundDropped.get(); }
+    public long getSlowSessionsClosed() { return slowSessionsClosed.get(); }
+
+    @Scheduled(fixedDelayString = "${stomp.channels.stats-log-interval-ms:60000}")
+    public void logStats() {
+        StringBuilder sb = new StringBuilder("[STOMP]");
+        int queued = 0;
+        for (Map.Entry<String, ThreadPoolTaskExecutor> e : pools.entrySet()) {
+            int depth = queueDepth(e.getKey());
+            queued += depth;
+            sb.append(' ').append(e.getKey())
+              .append("={file=").append(depth)
+              .append(", actifs=").append(e.getValue().getActiveCount())
+              .append('/').append(e.getValue().getPoolSize()).append('}');
+        }
+        long total = inboundCallerRuns.get() + outboundDropped.get() + slowSessionsClosed.get();
+        sb.append(" inboundCallerRuns=").append(inboundCallerRuns.get())
+          .append(" outboundDropped=").append(outboundDropped.get())
+          .append(" slowSessionsClosed=").append(slowSessionsClosed.get());
+
+        if (queued > 0 || total != lastTotal) {
+            log.info(sb.toString());
+        } else {
+            log.debug(sb.toString());
+        }
+        lastTotal = total;
+    }
+}
@@ -0,0 +1,68 @@
+package com.projet.freelencetinder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Canaux STOMP et limites par session :
+ * - inbound  : messages reçus des clients (/app/...) ; file pleine = le thread de la socket
+ *              émettrice traite lui-même (contre-pression sur ce client uniquement) ;
+ * - outbound : diffusion vers les sessions ; file pleine = message abandonné et compté,
+ *              jamais de blocage de la diffusion ;
+ * - send-time-limit / send-buffer-size-limit : une session qui ne lit plus est fermée
+ *   (close status 4500) au lieu de retenir un thread et de la mémoire.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stomp.channels")
+public class StompChannelProperties {
+
+    private Pool inbound = new Pool(4, 16, 1_000);
+    private Pool outbound = new Pool(4, 16, 5_000);
+
+    private int sendTimeLimitMs = 10_000;
+    private int sendBufferSizeLimitBytes = 512 * 1024;
+    private int messageSizeLimitBytes = 64 * 1024;
+
+    private long statsLogIntervalMs = 60_000;   // période du journal StompChannelMonitor
+
+    public static class Pool {
+        private int coreSize;
+        private int maxSize;
+        private int queueCapacity;
+
+        public Pool() {}
+
+        public Pool(int coreSize, int maxSize, int queueCapacity) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getCoreSize() { return coreSize; }
+        public void setCoreSize(int coreSize) { this.coreSize = coreSize; }
+
+        public int getMaxSize() { return maxSize; }
+        public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    }
+
+    public Pool getInbound() { return inbound; }
+    public void setInbound(Pool inbound) { this.inbound = inbound; }
+
+    public Pool getOutbound() { return outbound; }
+    public void setOutbound(Pool outbound) { this.outbound = outbound; }
+
+    public int getSendTimeLimitMs() { return sendTimeLimitMs; }
+    public void setSendTimeLimitMs(int sendTimeLimitMs) { this.sendTimeLimitMs = sendTimeLimitMs; }
+
+    public int getSendBufferSizeLimitBytes() { return sendBufferSizeLimitBytes; }
+    public void setSendBufferSizeLimitBytes(int sendBufferSizeLimitBytes) { this.sendBufferSizeLimitBytes = sendBufferSizeLimitBytes; }
+
+    public int getMessageSizeLimitBytes() { return messageSizeLimitBytes; }
+    public void setMessageSizeLimitBytes(int messageSizeLimitBytes) { this.messageSizeLimitBytes = messageSizeLimitBytes; }
+
+    public long getStatsLogIntervalMs() { return statsLogIntervalMs; }
+    public void setStatsLogIntervalMs(long statsLogIntervalMs) { this.statsLogIntervalMs = statsLogIntervalMs; }
+}
@@ -0,0 +1,36 @@
+package com.projet.freelencetinder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Ingestion des swipes :
+ * - SYNC  : chaque swipe est écrit dans sa propre transaction (comportement historique) ;
+ * - ASYNC : les DISLIKE (qui ne peuvent pas produire de match) sont acquittés tout de suite
+ *           puis écrits par lots ; LIKE / SUPERLIKE restent synchrones.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "swipe.ingestion")
+public class SwipeIngestionProperties {
+
+    public enum Mode { SYNC, ASYNC }
+
+    private Mode mode = Mode.SYNC;
+    private int queueCapacity = 10_000;   // au-delà : repli sur l'écriture synchrone
+    private int batchSize = 500;          // lignes par INSERT multi-valeurs
+    private long flushIntervalMs = 200;
+
+    public boolean isAsync() { return mode == Mode.ASYNC; }
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getFlushIntervalMs() { return flushIntervalMs; }
+    public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+}
@@ -0,0 +1,16 @@
+package com.projet.freelencetinder.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TimeConfig {
+    // Horloge unique injectée (scoring, mappings DTO) : remplaçable en test par Clock.fixed(...)
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
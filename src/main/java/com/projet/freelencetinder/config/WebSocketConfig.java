@@ -2,8 +2,11 @@ package com.projet.freelencetinder.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.*;
 
@@ -12,6 +15,18 @@ import org.springframework.web.socket.config.annotation.*;
 @EnableScheduling
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompBrokerProperties brokerProps;
+    private final StompChannelProperties channelProps;
+    private final StompChannelMonitor channelMonitor;
+
+    public WebSocketConfig(StompBrokerProperties brokerProps,
+                           StompChannelProperties channelProps,
+                           StompChannelMonitor channelMonitor) {
+        this.brokerProps = brokerProps;
+        this.channelProps = channelProps;
+        this.channelMonitor = channelMonitor;
+    }
+
     /**
      * Scheduler dédié pour émettre les heartbeats STOMP.
      * Le nom stompTaskScheduler n'entre pas en conflit
@@ -26,13 +41,75 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         return scheduler;
     }
 
+    /* ===================== Canaux clients (cf. StompChannelProperties) =====================
+       Exécuteurs passés à la registration : enregistrés comme beans et gérés par Spring
+       (clientInboundChannelExecutor / clientOutboundChannelExecutor), pas de @Bean ici. */
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        ThreadPoolTaskExecutor executor = pool("stomp-in-", channelProps.getInbound());
+        executor.setRejectedExecutionHandler(channelMonitor.inboundPolicy());
+        channelMonitor.watch("inbound", executor);
+        registration.executor(executor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        ThreadPoolTaskExecutor executor = pool("stomp-out-", channelProps.getOutbound());
+        executor.setRejectedExecutionHandler(channelMonitor.outboundPolicy());
+        channelMonitor.watch("outbound", executor);
+        registration.executor(executor);
+    }
+
+    private static ThreadPoolTaskExecutor pool(String prefix, StompChannelProperties.Pool p) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(p.getCoreSize());
+        executor.setMaxPoolSize(p.getMaxSize());
+        executor.setQueueCapacity(p.getQueueCapacity());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix(prefix);
+        return executor;
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // au-delà : session fermée (4500), elle ne retient ni thread outbound ni mémoire
+        registration
+            .setSendTimeLimit(channelProps.getSendTimeLimitMs())
+            .setSendBufferSizeLimit(channelProps.getSendBufferSizeLimitBytes())
+            .setMessageSizeLimit(channelProps.getMessageSizeLimitBytes());
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry
-            .enableSimpleBroker("/topic", "/queue")
-            .setHeartbeatValue(new long[]{15_000, 15_000})
-            // on branche ici notre scheduler renommé
-            .setTaskScheduler(stompTaskScheduler());
+        if (brokerProps.isRelay()) {
+            // Broker externe : heartbeats client gérés par le broker, registre utilisateur partagé
+            StompBrokerRelayRegistration relay = registry
+                .enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(brokerProps.getRelayHost())
+                .setRelayPort(brokerProps.getRelayPort())
+                .setClientLogin(brokerProps.getClientLogin())
+                .setClientPasscode(brokerProps.getClientPasscode())
+                .setSystemLogin(brokerProps.getSystemLogin())
+                .setSystemPasscode(brokerProps.getSystemPasscode())
+                .setSystemHeartbeatSendInterval(15_000)
+                .setSystemHeartbeatReceiveInterval(15_000)
+                .setUserRegistryBroadcast(brokerProps.getUserRegistryBroadcast())
+                .setUserDestinationBroadcast(brokerProps.getUserDestinationBroadcast());
+            if (brokerProps.getVirtualHost() != null) {
+                relay.setVirtualHost(brokerProps.getVirtualHost());
+            }
+        } else {
+            registry
+                .enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{15_000, 15_000})
+                // on branche ici notre scheduler renommé
+                .setTaskScheduler(stompTaskScheduler());
+        }
+
+        // ordre conservé par session : un seul envoi en vol par session sur le pool outbound,
+        // une socket lente n'occupe donc jamais plus d'un thread
+        registry.setPreservePublishOrder(true);
 
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
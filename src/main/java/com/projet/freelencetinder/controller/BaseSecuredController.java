@@ -1,16 +1,18 @@
 package com.projet.freelencetinder.controller;
 
-import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.UserIdentityCache;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 public abstract class BaseSecuredController {
 
     protected final UtilisateurRepository userRepo;
+    protected final UserIdentityCache identities;
 
-    protected BaseSecuredController(UtilisateurRepository userRepo) {
+    protected BaseSecuredController(UtilisateurRepository userRepo, UserIdentityCache identities) {
         this.userRepo = userRepo;
+        this.identities = identities;
     }
 
     protected Long getCurrentUserId() {
@@ -18,9 +20,6 @@ public abstract class BaseSecuredController {
         if (auth == null || !auth.isAuthenticated()) {
             throw new IllegalStateException("Utilisateur non authentifié");
         }
-        String identifier = auth.getName(); // ici = email
-        Utilisateur u = userRepo.findByEmail(identifier)
-                .orElseThrow(() -> new IllegalStateException("Utilisateur introuvable: " + identifier));
-        return u.getId();
+        return identities.idOf(auth.getName()); // ici = email, résolu en mémoire
     }
 }
\ No newline at end of file
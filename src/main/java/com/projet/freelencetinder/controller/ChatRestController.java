@@ -3,7 +3,8 @@ package com.projet.freelencetinder.controller;
 import com.projet.freelencetinder.dto.ChatMessageResponse;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
 import com.projet.freelencetinder.servcie.ChatMessageService;
-import org.springframework.data.domain.Page;
+import com.projet.freelencetinder.servcie.UserIdentityCache;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,19 +15,26 @@ public class ChatRestController extends BaseSecuredController {
     private final ChatMessageService chatService;
 
     public ChatRestController(ChatMessageService chatService,
-                              UtilisateurRepository userRepo) {
-        super(userRepo);
+                              UtilisateurRepository userRepo,
+                              UserIdentityCache identities) {
+        super(userRepo, identities);
         this.chatService = chatService;
     }
 
-    /* ------------------------------------------------------- */
+    /* -------------------------------------------------------
+       Historique par curseur (id de message) :
+       GET .../messages?size=20                  derniers messages
+       GET .../messages?beforeId=<plus ancien>   page précédente
+       GET .../messages?afterId=<plus récent>    rattrapage après reconnexion
+       ------------------------------------------------------- */
     @GetMapping("/conversations/{id}/messages")
-    public Page<ChatMessageResponse> getMessages(@PathVariable Long id,
-                                                 @RequestParam(defaultValue = "0") int page,
-                                                 @RequestParam(defaultValue = "20") int size) {
+    public Slice<ChatMessageResponse> getMessages(@PathVariable Long id,
+                                                  @RequestParam(required = false) Long beforeId,
+                                                  @RequestParam(required = false) Long afterId,
+                                                  @RequestParam(defaultValue = "20") int size) {
 
         Long currentUserId = getCurrentUserId();
-        return chatService.getConversationMessages(id, page, size, currentUserId);
+        return chatService.getConversationMessages(id, beforeId, afterId, size, currentUserId);
     }
 
     /* ------------------------------------------------------- */
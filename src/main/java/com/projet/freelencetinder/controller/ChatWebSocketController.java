@@ -2,9 +2,8 @@ package com.projet.freelencetinder.controller;
 
 import com.projet.freelencetinder.dto.ChatMessageResponse;
 import com.projet.freelencetinder.dto.SendMessageRequest;
-import com.projet.freelencetinder.models.Utilisateur;
-import com.projet.freelencetinder.repository.UtilisateurRepository;
 import com.projet.freelencetinder.servcie.ChatMessageService;
+import com.projet.freelencetinder.servcie.UserIdentityCache;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
@@ -15,12 +14,12 @@ import org.springframework.stereotype.Controller;
 public class ChatWebSocketController {
 
     private final ChatMessageService chatService;
-    private final UtilisateurRepository userRepo;
+    private final UserIdentityCache identities;
 
     public ChatWebSocketController(ChatMessageService chatService,
-                                   UtilisateurRepository userRepo) {
+                                   UserIdentityCache identities) {
         this.chatService = chatService;
-        this.userRepo = userRepo;
+        this.identities = identities;
     }
 
     @MessageMapping("/chat/send")          // front => /app/chat/send
@@ -28,18 +27,8 @@ public class ChatWebSocketController {
     public ChatMessageResponse handleSend(@Payload SendMessageRequest req,
                                           StompHeaderAccessor accessor) {
 
-        String principalName = accessor.getUser().getName(); // email ou id selon ta config
-        Long senderId;
-
-        try {
-            // Si déjà un ID numérique
-            senderId = Long.valueOf(principalName);
-        } catch (NumberFormatException e) {
-            // Sinon on suppose que c’est un email
-            Utilisateur u = userRepo.findByEmail(principalName)
-                    .orElseThrow(() -> new IllegalStateException("Utilisateur WS introuvable: " + principalName));
-            senderId = u.getId();
-        }
+        // principal = id numérique ou email, résolu en mémoire (pas de lecture par message)
+        Long senderId = identities.idOf(accessor.getUser().getName());
 
         return chatService.sendMessage(req, senderId);
     }
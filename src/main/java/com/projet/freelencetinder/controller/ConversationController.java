@@ -5,10 +5,14 @@ import com.projet.freelencetinder.models.Conversation;
 import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
 import com.projet.freelencetinder.servcie.ConversationService;
+import com.projet.freelencetinder.servcie.UserIdentityCache;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/conversations")
@@ -18,18 +22,35 @@ public class ConversationController extends BaseSecuredController {
     private final UtilisateurRepository userRepo;
 
     public ConversationController(ConversationService convService,
-                                  UtilisateurRepository userRepo) {
-        super(userRepo);
+                                  UtilisateurRepository userRepo,
+                                  UserIdentityCache identities) {
+        super(userRepo, identities);
         this.convService = convService;
         this.userRepo = userRepo;
     }
 
-    /* ------------------------------------------------------- */
+    /* -------------------------------------------------------
+       Boîte de réception paginée par curseur :
+       GET /api/conversations?size=20
+       GET /api/conversations?beforeAt=<lastMessageAt>&beforeId=<conversationId>&size=20
+       (valeurs de la dernière ligne reçue ; page incomplète = fin de liste)
+       ------------------------------------------------------- */
     @GetMapping
-    public List<ConversationSummaryDto> listUserConversations(@RequestParam(defaultValue = "0") int page,
-                                                              @RequestParam(defaultValue = "20") int size) {
+    public List<ConversationSummaryDto> listUserConversations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeAt,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
         Long currentUserId = getCurrentUserId();
-        return convService.getUserConversations(currentUserId, page, size);
+        return convService.getUserConversations(currentUserId, beforeAt, beforeId, size);
+    }
+
+    /* -------------------------------------------------------
+       Badge : total des messages non lus de l'utilisateur
+       GET /api/conversations/unread-count -> {"unread": n}
+       ------------------------------------------------------- */
+    @GetMapping("/unread-count")
+    public Map<String, Long> unreadCount() {
+        return Map.of("unread", convService.getUnreadTotal(getCurrentUserId()));
     }
 
     /* -------------------------------------------------------
@@ -21,6 +21,7 @@ import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.repository.MissionRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
 import com.projet.freelencetinder.servcie.FeedbackService;
+import com.projet.freelencetinder.servcie.UserIdentityCache;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -34,8 +35,9 @@ public class FeedbackController extends BaseSecuredController {
 
     public FeedbackController(FeedbackService service,
                               MissionRepository missionRepo,
-                              UtilisateurRepository userRepo) {
-        super(userRepo);
+                              UtilisateurRepository userRepo,
+                              UserIdentityCache identities) {
+        super(userRepo, identities);
         this.service = service;
         this.missionRepo = missionRepo;
     }
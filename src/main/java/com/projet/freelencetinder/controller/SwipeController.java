@@ -11,6 +11,7 @@ import jakarta.persistence.EntityNotFoundException;
 import com.projet.freelencetinder.dto.MissionRecommendationDTO;
 import com.projet.freelencetinder.dto.MissionSummaryDTO;
 import com.projet.freelencetinder.dto.FreelanceSummaryDTO;
+import com.projet.freelencetinder.dto.SwipeFeedPageDTO;
 
 import com.projet.freelencetinder.models.ClientSwipe;
 import com.projet.freelencetinder.models.Mission.Categorie;
@@ -50,6 +51,26 @@ public class SwipeController {
         );
     }
 
+    /* ================================================================
+       1.b Feed paginé (keyset) pour l’app mobile
+       GET /api/swipes/feed?freelanceId=1&categorie=DEVELOPPEMENT_WEB&cursor=1234&size=20
+       → repasser nextCursor tant que hasMore = true
+       ================================================================ */
+    @GetMapping("/feed")
+    public ResponseEntity<SwipeFeedPageDTO> getSwipeFeed(
+            @RequestParam Long freelanceId,
+            @RequestParam(required = false) Categorie categorie,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (freelanceId == null)
+            throw new IllegalArgumentException("freelanceId obligatoire");
+
+        return ResponseEntity.ok(
+                swipeService.getSwipeFeed(freelanceId, categorie, cursor, size)
+        );
+    }
+
     /* ================================================================
        2. Swipe FREELANCE → mission
        POST /api/swipes/mission/{missionId}/freelance/{freelanceId}?decision=LIKE[&dwellTimeMs=1234]
@@ -65,6 +86,7 @@ public class SwipeController {
         Decision effective = resolveDecision(decision, body);
         Long     dwell     = resolveDwellTime(dwellTimeMs, body); // AJOUT
         Swipe swipe = swipeService.swipeMission(freelanceId, missionId, effective, dwell);
+        if (swipe == null) return ResponseEntity.accepted().build(); // DISLIKE mis en file (mode ASYNC)
         return ResponseEntity.ok(swipe);
     }
 
@@ -86,6 +108,7 @@ public class SwipeController {
         Long     dwell     = resolveDwellTime(dwellTimeMs, body); // AJOUT
         ClientSwipe cs = swipeService.clientSwipeFreelance(
                 clientId, missionId, freelanceId, effective, dwell);
+        if (cs == null) return ResponseEntity.accepted().build(); // DISLIKE mis en file (mode ASYNC)
         return ResponseEntity.ok(cs);
     }
 
@@ -156,18 +179,21 @@ public class SwipeController {
 
     /**
      * Explorer les freelances compatibles avec une mission (matching compétences).
-     * GET /api/swipes/mission/{missionId}/explore?clientId=123
+     * GET /api/swipes/mission/{missionId}/explore?clientId=123&page=0&size=50
+     * Tri : compétences communes, puis note, puis id.
      */
     @GetMapping("/mission/{missionId}/explore")
     public ResponseEntity<List<FreelanceSummaryDTO>> exploreFreelancers(
             @PathVariable Long missionId,
-            @RequestParam Long clientId) {
+            @RequestParam Long clientId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
 
         if (clientId == null) {
             throw new IllegalArgumentException("clientId est requis");
         }
         List<FreelanceSummaryDTO> result =
-            swipeService.getFreelancersMatchingMission(clientId, missionId);
+            swipeService.getFreelancersMatchingMission(clientId, missionId, page, size);
         return ResponseEntity.ok(result);
     }
 
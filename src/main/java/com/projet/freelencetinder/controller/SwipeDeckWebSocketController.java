@@ -0,0 +1,31 @@
+package com.projet.freelencetinder.controller;
+
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+import com.projet.freelencetinder.dto.DeckRequest;
+import com.projet.freelencetinder.servcie.SwipeDeckService;
+
+/**
+ * Deck swipe en streaming : le front s'abonne à /user/queue/deck puis envoie
+ * { "categorie": ..., "remaining": n, "reset": true|false } sur /app/deck/request.
+ */
+@Controller
+public class SwipeDeckWebSocketController {
+
+    private final SwipeDeckService deckService;
+
+    public SwipeDeckWebSocketController(SwipeDeckService deckService) {
+        this.deckService = deckService;
+    }
+
+    @MessageMapping("/deck/request")       // front => /app/deck/request
+    public void requestCards(@Payload DeckRequest req, StompHeaderAccessor accessor) {
+        if (accessor.getUser() == null) {
+            throw new IllegalStateException("Session WS non authentifiée");
+        }
+        deckService.onDeckRequest(accessor.getSessionId(), accessor.getUser().getName(), req);
+    }
+}
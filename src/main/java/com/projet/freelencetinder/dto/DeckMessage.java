@@ -0,0 +1,49 @@
+package com.projet.freelencetinder.dto;
+
+import java.util.List;
+
+/**
+ * Payload envoyé sur /user/queue/deck :
+ * - CARDS   : cartes à ajouter en fin de deck (hasMore = false => feed épuisé) ;
+ * - RETRACT : missions à retirer du deck (verrouillées, attribuées, expirées...).
+ */
+public class DeckMessage {
+
+    public enum Type { CARDS, RETRACT }
+
+    private Type type;
+    private List<MissionSummaryDTO> cards;
+    private List<Long> retractedIds;
+    private boolean hasMore;
+
+    public DeckMessage() {}
+
+    public static DeckMessage cards(List<MissionSummaryDTO> cards, boolean hasMore) {
+        DeckMessage m = new DeckMessage();
+        m.type = Type.CARDS;
+        m.cards = cards;
+        m.retractedIds = List.of();
+        m.hasMore = hasMore;
+        return m;
+    }
+
+    public static DeckMessage retract(List<Long> ids) {
+        DeckMessage m = new DeckMessage();
+        m.type = Type.RETRACT;
+        m.cards = List.of();
+        m.retractedIds = ids;
+        return m;
+    }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public List<MissionSummaryDTO> getCards() { return cards; }
+    public void setCards(List<MissionSummaryDTO> cards) { this.cards = cards; }
+
+    public List<Long> getRetractedIds() { return retractedIds; }
+    public void setRetractedIds(List<Long> retractedIds) { this.retractedIds = retractedIds; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
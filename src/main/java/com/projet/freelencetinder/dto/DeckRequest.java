@@ -0,0 +1,22 @@
+package com.projet.freelencetinder.dto;
+
+import com.projet.freelencetinder.models.Mission.Categorie;
+
+/** Demande de cartes envoyée sur /app/deck/request (mode deck STOMP). */
+public class DeckRequest {
+
+    private Categorie categorie;  // null = toutes catégories
+    private Integer remaining;    // cartes encore dans le deck local (null = 0)
+    private boolean reset;        // nouveau deck (changement de filtre, reprise)
+
+    public DeckRequest() {}
+
+    public Categorie getCategorie() { return categorie; }
+    public void setCategorie(Categorie categorie) { this.categorie = categorie; }
+
+    public Integer getRemaining() { return remaining; }
+    public void setRemaining(Integer remaining) { this.remaining = remaining; }
+
+    public boolean isReset() { return reset; }
+    public void setReset(boolean reset) { this.reset = reset; }
+}
@@ -4,12 +4,45 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.EngagementModel;
+import com.projet.freelencetinder.models.Utilisateur.Langue;
+import com.projet.freelencetinder.models.Utilisateur.NiveauLangue;
+import com.projet.freelencetinder.models.Utilisateur.NiveauMaitrise;
 
 public final class FreelanceSummaryAssembler {
 
     private FreelanceSummaryAssembler() {}
 
+    /**
+     * Collections d'un profil chargées à part (requêtes IN groupées),
+     * pour ne pas initialiser les @ElementCollection lazy de l'entité.
+     */
+    public record ProfileCollections(Set<String> competences,
+                                     List<String> portfolioUrls,
+                                     Set<String> badges,
+                                     List<String> certifications,
+                                     List<EngagementModel> modelesEngagementPreferes,
+                                     Map<Langue, NiveauLangue> langues,
+                                     Map<String, NiveauMaitrise> competencesNiveaux) {
+
+        public static final ProfileCollections EMPTY = new ProfileCollections(
+                Set.of(), List.of(), Set.of(), List.of(), List.of(), Map.of(), Map.of());
+    }
+
+    /** Mapping à partir des collections de l'entité (déclenche leur chargement lazy). */
     public static FreelanceSummaryDTO toSummary(Utilisateur u) {
+        return toSummary(u, new ProfileCollections(
+                u.getCompetences() != null ? new HashSet<>(u.getCompetences()) : null,
+                u.getPortfolioUrls() != null ? new ArrayList<>(u.getPortfolioUrls()) : null,
+                u.getListeBadges(),
+                u.getCertifications() != null ? new ArrayList<>(u.getCertifications()) : null,
+                u.getModelesEngagementPreferes() != null ? new ArrayList<>(u.getModelesEngagementPreferes()) : null,
+                u.getLangues() != null ? new HashMap<>(u.getLangues()) : null,
+                u.getCompetencesNiveaux() != null ? new HashMap<>(u.getCompetencesNiveaux()) : null));
+    }
+
+    /** Mapping à partir des champs scalaires de l'entité + collections préchargées. */
+    public static FreelanceSummaryDTO toSummary(Utilisateur u, ProfileCollections c) {
         FreelanceSummaryDTO dto = new FreelanceSummaryDTO();
 
         dto.setId(u.getId());
@@ -26,11 +59,11 @@ public final class FreelanceSummaryAssembler {
         dto.setTarifJournalier(u.getTarifJournalier());
         dto.setNoteMoyenne(u.getNoteMoyenne());
 
-        dto.setCompetences(u.getCompetences() != null ? new HashSet<>(u.getCompetences()) : null);
+        dto.setCompetences(c.competences());
 
         // Badge principal = premier badge s'il existe
-        if (u.getListeBadges() != null && !u.getListeBadges().isEmpty()) {
-            dto.setBadgePrincipal(u.getListeBadges().iterator().next());
+        if (c.badges() != null && !c.badges().isEmpty()) {
+            dto.setBadgePrincipal(c.badges().iterator().next());
         }
 
         dto.setTitreProfil(u.getTitreProfil());
@@ -38,17 +71,13 @@ public final class FreelanceSummaryAssembler {
         dto.setMobilite(u.getMobilite());
         dto.setTimezone(u.getTimezone());
 
-        dto.setModelesEngagementPreferes(
-                u.getModelesEngagementPreferes() != null
-                        ? new ArrayList<>(u.getModelesEngagementPreferes())
-                        : null
-        );
+        dto.setModelesEngagementPreferes(c.modelesEngagementPreferes());
 
         dto.setDateDisponibilite(u.getDateDisponibilite() != null ? u.getDateDisponibilite().toString() : null);
         dto.setChargeHebdoSouhaiteeJours(u.getChargeHebdoSouhaiteeJours());
 
-        dto.setLangues(u.getLangues() != null ? new HashMap<>(u.getLangues()) : null);
-        dto.setCompetencesNiveaux(u.getCompetencesNiveaux() != null ? new HashMap<>(u.getCompetencesNiveaux()) : null);
+        dto.setLangues(c.langues());
+        dto.setCompetencesNiveaux(c.competencesNiveaux());
 
         dto.setTauxReussite(u.getTauxReussite());
         dto.setTauxRespectDelais(u.getTauxRespectDelais());
@@ -56,8 +85,8 @@ public final class FreelanceSummaryAssembler {
         dto.setDelaiReponseHeures(u.getDelaiReponseHeures());
         dto.setDelaiReponseMedianMinutes(u.getDelaiReponseMedianMinutes());
 
-        dto.setCertifications(u.getCertifications() != null ? new ArrayList<>(u.getCertifications()) : null);
-        dto.setPortfolioUrls(u.getPortfolioUrls() != null ? new ArrayList<>(u.getPortfolioUrls()) : null);
+        dto.setCertifications(c.certifications());
+        dto.setPortfolioUrls(c.portfolioUrls());
 
         // Vérifications & KYC
         dto.setEmailVerifie(u.isEmailVerifie());
@@ -0,0 +1,36 @@
+package com.projet.freelencetinder.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Accusé de lecture envoyé à l'autre participant sur /user/queue/read-receipts :
+ * tous ses messages d'id <= lastSeenMessageId sont lus par readerId.
+ */
+public class ReadReceiptEvent {
+
+    private Long conversationId;
+    private Long readerId;
+    private Long lastSeenMessageId;
+    private LocalDateTime seenAt;
+
+    public ReadReceiptEvent() {}
+
+    public ReadReceiptEvent(Long conversationId, Long readerId, Long lastSeenMessageId, LocalDateTime seenAt) {
+        this.conversationId = conversationId;
+        this.readerId = readerId;
+        this.lastSeenMessageId = lastSeenMessageId;
+        this.seenAt = seenAt;
+    }
+
+    public Long getConversationId() { return conversationId; }
+    public void setConversationId(Long conversationId) { this.conversationId = conversationId; }
+
+    public Long getReaderId() { return readerId; }
+    public void setReaderId(Long readerId) { this.readerId = readerId; }
+
+    public Long getLastSeenMessageId() { return lastSeenMessageId; }
+    public void setLastSeenMessageId(Long lastSeenMessageId) { this.lastSeenMessageId = lastSeenMessageId; }
+
+    public LocalDateTime getSeenAt() { return seenAt; }
+    public void setSeenAt(LocalDateTime seenAt) { this.seenAt = seenAt; }
+}
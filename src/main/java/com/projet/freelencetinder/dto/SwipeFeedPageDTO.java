@@ -0,0 +1,31 @@
+package com.projet.freelencetinder.dto;
+
+import java.util.List;
+
+/**
+ * Page du feed swipe (pagination keyset).
+ * nextCursor = id de la dernière carte renvoyée, à repasser tel quel pour la page suivante.
+ */
+public class SwipeFeedPageDTO {
+
+    private List<MissionSummaryDTO> items;
+    private Long nextCursor;
+    private boolean hasMore;
+
+    public SwipeFeedPageDTO() {}
+
+    public SwipeFeedPageDTO(List<MissionSummaryDTO> items, Long nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<MissionSummaryDTO> getItems() { return items; }
+    public void setItems(List<MissionSummaryDTO> items) { this.items = items; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
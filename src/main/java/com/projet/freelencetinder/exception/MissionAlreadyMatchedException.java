@@ -0,0 +1,6 @@
+package com.projet.freelencetinder.exception;
+
+/** Course perdue sur l'attribution d'une mission (un autre freelance l'a obtenue juste avant). */
+public class MissionAlreadyMatchedException extends RuntimeException {
+    public MissionAlreadyMatchedException(String message) { super(message); }
+}
@@ -16,6 +16,10 @@ public class RestExceptionHandler {
     public ResponseEntity<ErrorDto> business(BusinessException ex) {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ErrorDto(ex.getMessage()));
     }
+    @ExceptionHandler(MissionAlreadyMatchedException.class)
+    public ResponseEntity<ErrorDto> alreadyMatched(MissionAlreadyMatchedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorDto(ex.getMessage()));
+    }
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorDto> illegalArg(IllegalArgumentException ex) {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(new ErrorDto(ex.getMessage()));
@@ -8,8 +8,8 @@ import java.time.LocalDateTime;
 @Table(
     name = "chat_message",
     indexes = {
-        @Index(name = "idx_msg_conv_sent", columnList = "conversation_id,sentAt"),
-        @Index(name = "idx_msg_unread", columnList = "conversation_id,receiver_id,seen")
+        // historique keyset : (conversation_id, id), l'id suit l'ordre d'envoi
+        @Index(name = "idx_msg_conv_id", columnList = "conversation_id,id")
     }
 )
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -43,13 +43,10 @@ public class ChatMessage {
     private String fileUrl;
     private String fileType;
 
-    /* Statut & audit */
+    /* Audit ; l'état "lu" est porté par la conversation (high-water mark par participant) */
     @Column(nullable = false, updatable = false)
     private LocalDateTime sentAt;
 
-    @Column(nullable = false)
-    private boolean seen = false;
-
     /* Constructeurs */
     public ChatMessage() {}
 
@@ -86,9 +83,6 @@ public class ChatMessage {
     public LocalDateTime getSentAt() { return sentAt; }
     public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
 
-    public boolean isSeen() { return seen; }
-    public void setSeen(boolean seen) { this.seen = seen; }
-
     /* Enum */
     public enum MessageType { TEXT, LINK, FILE }
 }
@@ -21,7 +21,9 @@ import jakarta.validation.constraints.*; // AJOUT
         @Index(name = "idx_client_swipe_source", columnList = "source"),
         @Index(name = "idx_client_swipe_superinvite", columnList = "super_invite"),
         @Index(name = "idx_client_swipe_session", columnList = "session_id"),
-        @Index(name = "idx_client_swipe_gouv", columnList = "gouvernorat_client")
+        @Index(name = "idx_client_swipe_gouv", columnList = "gouvernorat_client"),
+        /* Likes client par mission (MutualLikeIndex) */
+        @Index(name = "idx_client_swipe_mission_decision", columnList = "mission_id, decision")
     }
 )
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
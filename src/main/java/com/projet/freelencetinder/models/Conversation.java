@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
     indexes = {
         @Index(name = "idx_conv_last_message_at", columnList = "lastMessageAt"),
         @Index(name = "idx_conv_client", columnList = "client_id"),
-        @Index(name = "idx_conv_freelance", columnList = "freelance_id")
+        @Index(name = "idx_conv_freelance", columnList = "freelance_id"),
+        // boîte de réception keyset : (participant, lastMessageAt desc, id desc)
+        @Index(name = "idx_conv_client_inbox", columnList = "client_id, lastMessageAt DESC, id DESC"),
+        @Index(name = "idx_conv_freelance_inbox", columnList = "freelance_id, lastMessageAt DESC, id DESC")
     }
 )
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
@@ -42,7 +45,7 @@ public class Conversation {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    /* Dernier message (snapshot pour performance) */
+    /* Dernier message (snapshot pour performance) ; = createdAt tant qu'aucun message */
     @Column
     private LocalDateTime lastMessageAt;
 
@@ -53,12 +56,40 @@ public class Conversation {
     @Column(length = 20)
     private ChatMessage.MessageType lastMessageType;
 
+    @Column
+    private Long lastMessageId;
+
+    /* Lecture par participant : non lus + dernier message vu (high-water mark).
+       Écrits uniquement par les UPDATE de ConversationRepository (updatable = false :
+       la sauvegarde d'une copie périmée de l'entité ne peut pas écraser un compteur). */
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int unreadForClient;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int unreadForFreelance;
+
+    @Column(updatable = false)
+    private Long clientLastSeenMessageId;
+
+    @Column(updatable = false)
+    private Long freelanceLastSeenMessageId;
+
+    @Column(updatable = false)
+    private LocalDateTime clientLastSeenAt;
+
+    @Column(updatable = false)
+    private LocalDateTime freelanceLastSeenAt;
+
     /* Constructeurs */
     public Conversation() {}
 
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        if (this.lastMessageAt == null) this.lastMessageAt = this.createdAt; // clé de tri keyset non nulle
+        // 0 = rien lu ; null réservé aux lignes antérieures, reprises au démarrage
+        if (this.clientLastSeenMessageId == null) this.clientLastSeenMessageId = 0L;
+        if (this.freelanceLastSeenMessageId == null) this.freelanceLastSeenMessageId = 0L;
     }
 
     /* ===================== Getters / Setters ===================== */
@@ -88,4 +119,16 @@ public class Conversation {
 
     public ChatMessage.MessageType getLastMessageType() { return lastMessageType; }
     public void setLastMessageType(ChatMessage.MessageType lastMessageType) { this.lastMessageType = lastMessageType; }
+
+    public Long getLastMessageId() { return lastMessageId; }
+    public void setLastMessageId(Long lastMessageId) { this.lastMessageId = lastMessageId; }
+
+    public int getUnreadForClient() { return unreadForClient; }
+    public int getUnreadForFreelance() { return unreadForFreelance; }
+
+    public Long getClientLastSeenMessageId() { return clientLastSeenMessageId; }
+    public Long getFreelanceLastSeenMessageId() { return freelanceLastSeenMessageId; }
+
+    public LocalDateTime getClientLastSeenAt() { return clientLastSeenAt; }
+    public LocalDateTime getFreelanceLastSeenAt() { return freelanceLastSeenAt; }
 }
@@ -6,6 +6,10 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 import com.fasterxml.jackson.annotation.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
@@ -23,9 +27,13 @@ import jakarta.validation.constraints.*;
         @Index(name = "idx_mission_modalite", columnList = "modaliteTravail"),
         @Index(name = "idx_mission_limite", columnList = "dateLimiteCandidature"),
         @Index(name = "idx_mission_remuneration", columnList = "typeRemuneration"),
-        @Index(name = "idx_mission_gouvernorat", columnList = "gouvernorat")
+        @Index(name = "idx_mission_gouvernorat", columnList = "gouvernorat"),
+        /* Feed swipe keyset (statut/verrou puis id DESC) */
+        @Index(name = "idx_mission_feed", columnList = "statut, verrouillee, id")
     }
 )
+/* UPDATE limité aux colonnes modifiées : les compteurs incrémentés en SQL (col = col + ?) ne sont pas écrasés */
+@DynamicUpdate
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Mission {
@@ -50,6 +58,18 @@ public class Mission {
     @Column(name = "competence", length = 120)
     private Set<String> competencesRequises = new HashSet<>();
 
+    /* Vecteur dénormalisé : ids canoniques (CompetenceRegistry.idOf) triés, index GIN (opérateur &&).
+       Recalculé par CompetenceService.syncSkillVector à chaque écriture des compétences. */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "competence_ids", columnDefinition = "integer[]")
+    @JsonIgnore
+    private int[] competenceIds;
+
+    /* Version du catalogue ayant servi au calcul (ids = rang dans le catalogue trié) */
+    @Column(name = "competence_catalog_version")
+    @JsonIgnore
+    private Integer competenceCatalogVersion;
+
     /* ===================== Ajouts: priorisation compétences / langues / séniorité ===================== */
     // AJOUT - Priorité des compétences (MUST / NICE)
     @ElementCollection
@@ -189,10 +209,11 @@ public class Mission {
     private String videoBriefUrl;
 
     /* ===================== Match & Swipes ===================== */
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    /* Compteurs écrits uniquement par SwipeStatsAccumulator (updatable = false, cf. Utilisateur) */
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer swipesRecus = 0;
 
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer likesRecus = 0;
 
     @Column(nullable = false, columnDefinition = "boolean default false")
@@ -242,18 +263,13 @@ public class Mission {
 
     /* ===================== Méthodes utilitaires ===================== */
     public boolean estExpirée() {
-        return dateLimiteCandidature != null &&
-               LocalDate.now().isAfter(dateLimiteCandidature);
+        return estExpirée(LocalDate.now());
     }
 
-    public void incrementSwipe() {
-        if (swipesRecus == null) swipesRecus = 0;
-        swipesRecus++;
-    }
-
-    public void incrementLike() {
-        if (likesRecus == null) likesRecus = 0;
-        likesRecus++;
+    /** Variante à date fournie (instantané de la requête). */
+    public boolean estExpirée(LocalDate today) {
+        return dateLimiteCandidature != null &&
+               today.isAfter(dateLimiteCandidature);
     }
 
     public void affecterFreelance(Utilisateur f) {
@@ -264,7 +280,11 @@ public class Mission {
     }
 
     public boolean estDisponiblePourSwipe() {
-        return statut == Statut.EN_ATTENTE && !verrouillee && !estExpirée();
+        return estDisponiblePourSwipe(LocalDate.now());
+    }
+
+    public boolean estDisponiblePourSwipe(LocalDate today) {
+        return statut == Statut.EN_ATTENTE && !verrouillee && !estExpirée(today);
     }
 
     /* ===================== Getters / Setters ===================== */
@@ -283,6 +303,12 @@ public class Mission {
     public Set<String> getCompetencesRequises() { return competencesRequises; }
     public void setCompetencesRequises(Set<String> competencesRequises) { this.competencesRequises = competencesRequises; }
 
+    public int[] getCompetenceIds() { return competenceIds; }
+    public void setCompetenceIds(int[] competenceIds) { this.competenceIds = competenceIds; }
+
+    public Integer getCompetenceCatalogVersion() { return competenceCatalogVersion; }
+    public void setCompetenceCatalogVersion(Integer competenceCatalogVersion) { this.competenceCatalogVersion = competenceCatalogVersion; }
+
     public Map<String, Importance> getCompetencesPriorisees() { return competencesPriorisees; }
     public void setCompetencesPriorisees(Map<String, Importance> competencesPriorisees) { this.competencesPriorisees = competencesPriorisees; }
 
@@ -22,7 +22,9 @@ import jakarta.validation.constraints.*;
         @Index(name = "idx_swipe_source", columnList = "source"),
         @Index(name = "idx_swipe_superlike", columnList = "super_like"),
         @Index(name = "idx_swipe_session", columnList = "session_id"),
-        @Index(name = "idx_swipe_gouv", columnList = "gouvernorat_freelance")
+        @Index(name = "idx_swipe_gouv", columnList = "gouvernorat_freelance"),
+        /* Likes par mission (MutualLikeIndex, vue client "qui a liké") */
+        @Index(name = "idx_swipe_mission_decision", columnList = "mission_id, decision")
     }
 )
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
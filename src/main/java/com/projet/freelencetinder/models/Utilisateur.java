@@ -9,6 +9,10 @@ import com.fasterxml.jackson.annotation.*;
 import com.projet.freelencetinder.enum1.AuthProvider;
 
 //import enums.AuthProvider;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
@@ -34,6 +38,8 @@ import jakarta.validation.constraints.*;
         @UniqueConstraint(name = "uk_utilisateur_email", columnNames = "email")
     }
 )
+/* UPDATE limité aux colonnes modifiées : les compteurs incrémentés en SQL (col = col + ?) ne sont pas écrasés */
+@DynamicUpdate
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Utilisateur {
@@ -92,6 +98,18 @@ public class Utilisateur {
     @Column(name = "competence", length = 120)
     private Set<String> competences = new HashSet<>();
 
+    /* Vecteur dénormalisé : ids canoniques (CompetenceRegistry.idOf) triés, index GIN (opérateur &&).
+       Recalculé par CompetenceService.syncSkillVector à chaque écriture des compétences. */
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "competence_ids", columnDefinition = "integer[]")
+    @JsonIgnore
+    private int[] competenceIds;
+
+    /* Version du catalogue ayant servi au calcul (ids = rang dans le catalogue trié) */
+    @Column(name = "competence_catalog_version")
+    @JsonIgnore
+    private Integer competenceCatalogVersion;
+
     @Positive private Double tarifHoraire;
     @Positive private Double tarifJournalier;
     @Enumerated(EnumType.STRING) private Disponibilite disponibilite;
@@ -145,12 +163,15 @@ public class Utilisateur {
     @Column(precision = 14, scale = 2) private BigDecimal soldeEscrow;
 
     /* ===================== Swiping & Gamification ===================== */
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    /* Écrits uniquement par SwipeStatsAccumulator (UPDATE col = col + ?) : updatable = false,
+       la sauvegarde de l'entité ne peut pas écraser des deltas pas encore vidés. */
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer nombreSwipes = 0;
+    @Column(updatable = false)
     private LocalDateTime dernierSwipeAt;
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer likesRecus = 0;
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer matchesObtenus = 0;
 
     /* ===================== Push notifications ===================== */
@@ -302,19 +323,6 @@ public class Utilisateur {
     protected void onUpdate() { this.derniereMiseAJour = LocalDateTime.now(); }
 
     /* ===================== Méthodes utilitaires ===================== */
-    public void incrementNombreSwipes()   {
-        if (nombreSwipes == null) nombreSwipes = 0;
-        nombreSwipes++;
-        this.dernierSwipeAt = LocalDateTime.now();
-    }
-    public void incrementLikesRecus() {
-        if (likesRecus == null) likesRecus = 0;
-        likesRecus++;
-    }
-    public void incrementMatchesObtenus() {
-        if (matchesObtenus == null) matchesObtenus = 0;
-        matchesObtenus++;
-    }
     public String getNomComplet() {
         return (nom != null ? nom : "") + " " + (prenom != null ? prenom : "");
     }
@@ -376,6 +384,12 @@ public class Utilisateur {
     public Set<String> getCompetences() { return competences; }
     public void setCompetences(Set<String> competences) { this.competences = competences; }
 
+    public int[] getCompetenceIds() { return competenceIds; }
+    public void setCompetenceIds(int[] competenceIds) { this.competenceIds = competenceIds; }
+
+    public Integer getCompetenceCatalogVersion() { return competenceCatalogVersion; }
+    public void setCompetenceCatalogVersion(Integer competenceCatalogVersion) { this.competenceCatalogVersion = competenceCatalogVersion; }
+
     public Double getTarifHoraire() { return tarifHoraire; }
     public void setTarifHoraire(Double tarifHoraire) { this.tarifHoraire = tarifHoraire; }
 
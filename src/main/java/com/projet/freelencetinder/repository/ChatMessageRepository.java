@@ -1,22 +1,55 @@
 package com.projet.freelencetinder.repository;
 
+import java.time.LocalDateTime;
+
 import com.projet.freelencetinder.models.ChatMessage;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
-
-import jakarta.transaction.Transactional;
 import org.springframework.data.repository.query.Param;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
-    Page<ChatMessage> findByConversationIdOrderBySentAtDesc(Long conversationId, Pageable pageable);
+    /** Colonnes d'un message, sans proxy conversation / sender / receiver (ids = clés étrangères). */
+    interface MessageRow {
+        Long getId();
+        Long getSenderId();
+        Long getReceiverId();
+        String getContent();
+        ChatMessage.MessageType getType();
+        String getFileUrl();
+        String getFileType();
+        LocalDateTime getSentAt();
+    }
 
-    long countByConversationIdAndReceiverIdAndSeenFalse(Long conversationId, Long receiverId);
+    /**
+     * Historique keyset sur (conversation_id, id) : messages plus anciens que beforeId
+     * (null = les plus récents), du plus récent au plus ancien. Slice : pas de COUNT.
+     */
+    @Query("""
+           select m.id as id, m.sender.id as senderId, m.receiver.id as receiverId,
+                  m.content as content, m.type as type, m.fileUrl as fileUrl,
+                  m.fileType as fileType, m.sentAt as sentAt
+             from ChatMessage m
+            where m.conversation.id = :convId
+              and (:beforeId is null or m.id < :beforeId)
+            order by m.id desc
+           """)
+    Slice<MessageRow> findBefore(@Param("convId") Long conversationId,
+                                 @Param("beforeId") Long beforeId,
+                                 Pageable pageable);
 
-    @Modifying
-    @Transactional
-    @Query("update ChatMessage m set m.seen = true " +
-           "where m.conversation.id = :convId and m.receiver.id = :userId and m.seen = false")
-    int markAllAsSeen(@Param("convId") Long conversationId, @Param("userId") Long userId);
+    /** Messages arrivés après afterId (rattrapage / reconnexion), du plus ancien au plus récent. */
+    @Query("""
+           select m.id as id, m.sender.id as senderId, m.receiver.id as receiverId,
+                  m.content as content, m.type as type, m.fileUrl as fileUrl,
+                  m.fileType as fileType, m.sentAt as sentAt
+             from ChatMessage m
+            where m.conversation.id = :convId
+              and m.id > :afterId
+            order by m.id asc
+           """)
+    Slice<MessageRow> findAfter(@Param("convId") Long conversationId,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
 }
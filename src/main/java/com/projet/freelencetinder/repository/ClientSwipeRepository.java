@@ -5,8 +5,12 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.projet.freelencetinder.models.ClientSwipe;
+import com.projet.freelencetinder.models.Swipe;
+import com.projet.freelencetinder.repository.SwipeRepository.MissionLikeRow;
 
 public interface ClientSwipeRepository extends JpaRepository<ClientSwipe, Long> {
 
@@ -15,4 +19,22 @@ public interface ClientSwipeRepository extends JpaRepository<ClientSwipe, Long>
     
     List<ClientSwipe> findByClientIdAndMissionId(Long clientId, Long missionId);
 
+    /** Ids des freelances déjà swipés par le client sur la mission (projection, pas d'entités). */
+    @Query("""
+      select cs.freelance.id from ClientSwipe cs
+      where cs.client.id = :clientId and cs.mission.id = :missionId
+    """)
+    List<Long> findFreelanceIdsByClientIdAndMissionId(@Param("clientId") Long clientId,
+                                                      @Param("missionId") Long missionId);
+
+    /* ===== Likes client des missions ouvertes (MutualLikeIndex) ; missionId null = toutes ===== */
+    @Query("""
+      select cs.mission.id as missionId, cs.freelance.id as freelanceId from ClientSwipe cs
+      where cs.decision = :decision
+        and (:missionId is null or cs.mission.id = :missionId)
+        and cs.mission.statut = com.projet.freelencetinder.models.Mission$Statut.EN_ATTENTE
+        and cs.mission.verrouillee = false
+    """)
+    List<MissionLikeRow> findOpenMissionLikes(@Param("missionId") Long missionId,
+                                              @Param("decision") Swipe.Decision decision);
 }
@@ -1,11 +1,15 @@
 package com.projet.freelencetinder.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import com.projet.freelencetinder.models.ChatMessage;
 import com.projet.freelencetinder.models.Conversation;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
@@ -13,7 +17,244 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
                                                                     Long clientId,
                                                                     Long freelanceId);
 
-    List<Conversation> findByClientIdOrFreelanceIdOrderByLastMessageAtDesc(Long clientId,
-                                                                           Long freelanceId,
-                                                                           Pageable pageable);
+    /** Ligne de boîte de réception : conversation + mission + autre participant + non lus. */
+    interface InboxRow {
+        Long getConversationId();
+        Long getMissionId();
+        String getMissionTitre();
+        Long getOtherUserId();
+        String getOtherNom();
+        String getOtherPrenom();
+        String getOtherPhotoUrl();
+        LocalDateTime getLastMessageAt();
+        String getLastMessageContent();
+        ChatMessage.MessageType getLastMessageType();
+        Integer getUnreadCount();
+    }
+
+    /**
+     * Boîte de réception en une requête, keyset sur (lastMessageAt, id) décroissants :
+     * before = dernière ligne reçue (null = première page). Pas d'offset, pas de COUNT,
+     * pas de chargement lazy de mission / client / freelance.
+     * Une branche par rôle, chacune parcourt son index (idx_conv_client_inbox /
+     * idx_conv_freelance_inbox) dans l'ordre et s'arrête à :size lignes ; fusion puis
+     * :size lignes au plus (un OR sur les deux rôles obligerait à trier toute la boîte).
+     */
+    @Query(value = """
+           select * from (
+             (select c.id                   as "conversationId",
+                     c.mission_id           as "missionId",
+                     m.titre                as "missionTitre",
+                     o.id                   as "otherUserId",
+                     o.nom                  as "otherNom",
+                     o.prenom               as "otherPrenom",
+                     o.photo_profil_url     as "otherPhotoUrl",
+                     c.last_message_at      as "lastMessageAt",
+                     c.last_message_content as "lastMessageContent",
+                     c.last_message_type    as "lastMessageType",
+                     c.unread_for_client    as "unreadCount"
+                from conversation c
+                join mission m     on m.id = c.mission_id
+                join utilisateur o on o.id = c.freelance_id
+               where c.client_id = :userId
+                 and (c.last_message_at, c.id) < (coalesce(cast(:beforeAt as timestamp), cast('infinity' as timestamp)),
+                                                  coalesce(cast(:beforeId as bigint), 9223372036854775807))
+               order by c.last_message_at desc, c.id desc
+               limit :size)
+              union all
+             (select c.id                   as "conversationId",
+                     c.mission_id           as "missionId",
+                     m.titre                as "missionTitre",
+                     o.id                   as "otherUserId",
+                     o.nom                  as "otherNom",
+                     o.prenom               as "otherPrenom",
+                     o.photo_profil_url     as "otherPhotoUrl",
+                     c.last_message_at      as "lastMessageAt",
+                     c.last_message_content as "lastMessageContent",
+                     c.last_message_type    as "lastMessageType",
+                     c.unread_for_freelance as "unreadCount"
+                from conversation c
+                join mission m     on m.id = c.mission_id
+                join utilisateur o on o.id = c.client_id
+               where c.freelance_id = :userId
+                 and (c.last_message_at, c.id) < (coalesce(cast(:beforeAt as timestamp), cast('infinity' as timestamp)),
+                                                  coalesce(cast(:beforeId as bigint), 9223372036854775807))
+               order by c.last_message_at desc, c.id desc
+               limit :size)
+           ) inbox
+            order by "lastMessageAt" desc, "conversationId" desc
+            limit :size
+           """, nativeQuery = true)
+    List<InboxRow> findInbox(@Param("userId") Long userId,
+                             @Param("beforeAt") LocalDateTime beforeAt,
+                             @Param("beforeId") Long beforeId,
+                             @Param("size") int size);
+
+    /** Participants d'une conversation (cf. ConversationMembershipCache). */
+    interface MembershipRow {
+        Long getClientId();
+        Long getFreelanceId();
+        Long getMissionId();
+    }
+
+    @Query("""
+           select c.client.id as clientId, c.freelance.id as freelanceId, c.mission.id as missionId
+             from Conversation c
+            where c.id = :id
+           """)
+    Optional<MembershipRow> findMembership(@Param("id") Long conversationId);
+
+    /** High-water marks de lecture des deux participants (0 = rien lu). */
+    interface ReadMarks {
+        Long getClientMark();
+        Long getFreelanceMark();
+    }
+
+    @Query("""
+           select coalesce(c.clientLastSeenMessageId, 0) as clientMark,
+                  coalesce(c.freelanceLastSeenMessageId, 0) as freelanceMark
+             from Conversation c
+            where c.id = :id
+           """)
+    ReadMarks findReadMarks(@Param("id") Long conversationId);
+
+    /* ===================== Envoi d'un message ===================== */
+
+    /**
+     * Snapshot + non lus du destinataire en un seul UPDATE. Le snapshot n'avance que si le
+     * message est plus récent que celui déjà enregistré (id croissant = ordre d'envoi ; deux
+     * envois concurrents peuvent committer dans le désordre). Le compteur, lui, s'incrémente
+     * toujours. Pas d'incrément de @Version : les écritures concurrentes ne se bloquent pas.
+     */
+    @Modifying
+    @Query("""
+           update Conversation c
+              set c.lastMessageAt = case when c.lastMessageId is null or c.lastMessageId < :msgId
+                                         then :sentAt else c.lastMessageAt end,
+                  c.lastMessageType = case when c.lastMessageId is null or c.lastMessageId < :msgId
+                                           then :type else c.lastMessageType end,
+                  c.lastMessageContent = case when c.lastMessageId is null or c.lastMessageId < :msgId
+                                              then :content else c.lastMessageContent end,
+                  c.lastMessageId = case when c.lastMessageId is null or c.lastMessageId < :msgId
+                                         then :msgId else c.lastMessageId end,
+                  c.unreadForClient = c.unreadForClient + :unreadClient,
+                  c.unreadForFreelance = c.unreadForFreelance + :unreadFreelance
+            where c.id = :id
+           """)
+    int applyNewMessage(@Param("id") Long conversationId,
+                        @Param("msgId") Long messageId,
+                        @Param("sentAt") LocalDateTime sentAt,
+                        @Param("type") ChatMessage.MessageType type,
+                        @Param("content") String content,
+                        @Param("unreadClient") int unreadClient,
+                        @Param("unreadFreelance") int unreadFreelance);
+
+    /* ===================== Non lus par participant (cf. Conversation) ===================== */
+
+    /**
+     * "Vu" en une ligne : compteur à 0, high-water mark = dernier message de la conversation.
+     * 0 ligne modifiée si rien de nouveau depuis la dernière lecture (pas d'écriture, pas d'accusé).
+     */
+    @Modifying
+    @Query("""
+           update Conversation c
+              set c.unreadForClient = 0,
+                  c.clientLastSeenMessageId = c.lastMessageId,
+                  c.clientLastSeenAt = :at
+            where c.id = :id
+              and c.lastMessageId is not null
+              and (c.unreadForClient > 0 or c.clientLastSeenMessageId < c.lastMessageId)
+           """)
+    int markSeenByClient(@Param("id") Long conversationId, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("""
+           update Conversation c
+              set c.unreadForFreelance = 0,
+                  c.freelanceLastSeenMessageId = c.lastMessageId,
+                  c.freelanceLastSeenAt = :at
+            where c.id = :id
+              and c.lastMessageId is not null
+              and (c.unreadForFreelance > 0 or c.freelanceLastSeenMessageId < c.lastMessageId)
+           """)
+    int markSeenByFreelance(@Param("id") Long conversationId, @Param("at") LocalDateTime at);
+
+    /** Badge global : somme des compteurs côté utilisateur, sans toucher chat_message. */
+    @Query("""
+           select coalesce(sum(case when c.client.id = :userId then c.unreadForClient
+                                    else c.unreadForFreelance end), 0)
+             from Conversation c
+            where c.client.id = :userId or c.freelance.id = :userId
+           """)
+    long sumUnreadForUser(@Param("userId") Long userId);
+
+    /**
+     * Reprise des conversations antérieures aux compteurs : non lus recomptés depuis
+     * l'ancienne colonne chat_message.seen, mark = dernier message marqué vu. Chaque côté
+     * n'est repris que si son propre mark est encore null : un mark déjà tenu par le code
+     * actuel (lecture faite depuis) n'est jamais écrasé par seen, que ce code n'écrit pas.
+     * N'existe que sur les bases créées avant les high-water marks (cf. hasLegacySeenColumn).
+     */
+    @Modifying
+    @Query(value = """
+           update conversation c
+              set last_message_id = coalesce(c.last_message_id,
+                      (select max(m.id) from chat_message m where m.conversation_id = c.id)),
+                  unread_for_client = case when c.client_last_seen_message_id is null
+                      then (select count(*) from chat_message m
+                             where m.conversation_id = c.id and m.receiver_id = c.client_id and not m.seen)
+                      else c.unread_for_client end,
+                  client_last_seen_message_id = coalesce(c.client_last_seen_message_id,
+                      (select max(m.id) from chat_message m
+                        where m.conversation_id = c.id and m.receiver_id = c.client_id and m.seen), 0),
+                  unread_for_freelance = case when c.freelance_last_seen_message_id is null
+                      then (select count(*) from chat_message m
+                             where m.conversation_id = c.id and m.receiver_id = c.freelance_id and not m.seen)
+                      else c.unread_for_freelance end,
+                  freelance_last_seen_message_id = coalesce(c.freelance_last_seen_message_id,
+                      (select max(m.id) from chat_message m
+                        where m.conversation_id = c.id and m.receiver_id = c.freelance_id and m.seen), 0)
+            where c.client_last_seen_message_id is null
+               or c.freelance_last_seen_message_id is null
+           """, nativeQuery = true)
+    int backfillReadState();
+
+    /* Reprises de données à exécuter une seule fois (pas d'outil de migration, ddl-auto=update) :
+       la ligne insérée dans la transaction de la reprise en est le verrou et la trace. */
+    @Modifying
+    @Query(value = """
+           create table if not exists app_data_migration (
+               id         varchar(100) primary key,
+               applied_at timestamp    not null default now()
+           )
+           """, nativeQuery = true)
+    void ensureDataMigrationTable();
+
+    /** 1 = reprise à exécuter maintenant, 0 = déjà faite (ou en cours sur un autre nœud). */
+    @Modifying
+    @Query(value = "insert into app_data_migration (id) values (:id) on conflict do nothing", nativeQuery = true)
+    int claimDataMigration(@Param("id") String id);
+
+    @Query(value = """
+           select exists(select 1 from information_schema.columns
+                          where table_schema = current_schema()
+                            and table_name = 'chat_message' and column_name = 'seen')
+           """, nativeQuery = true)
+    boolean hasLegacySeenColumn();
+
+    /* ddl-auto=update ne supprime pas les colonnes : l'ancienne (NOT NULL, sans défaut)
+       bloquerait les INSERT. Elle est seulement neutralisée (idempotent, métadonnées) ;
+       sa suppression, avec l'index idx_msg_unread, relève d'une migration explicite. */
+    @Modifying
+    @Query(value = """
+           alter table chat_message
+                 alter column seen set default false,
+                 alter column seen drop not null
+           """, nativeQuery = true)
+    void relaxLegacySeenColumn();
+
+    /** Conversations antérieures sans message : lastMessageAt = date de création (tri keyset non nul). */
+    @Modifying
+    @Query("update Conversation c set c.lastMessageAt = c.createdAt where c.lastMessageAt is null")
+    int backfillLastMessageAt();
 }
@@ -1,12 +1,21 @@
 // MissionRepository.java
 package com.projet.freelencetinder.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
 
 @Repository
 public interface MissionRepository extends JpaRepository<Mission, Long> {
@@ -20,5 +29,105 @@ public interface MissionRepository extends JpaRepository<Mission, Long> {
 	
 	List<Mission> findByStatutAndFreelanceSelectionneIsNotNull(Mission.Statut statut);
 
+    /* ===== Feed swipe freelance (keyset sur id, filtrage côté PostgreSQL) =====
+       - statut / verrou / catégorie filtrés en SQL ; la deadline est matérialisée dans
+         statut = EXPIREE par MissionExpiryScheduler, le prédicat :today couvre l'intervalle
+         entre minuit et son passage (résiduel, peu de lignes)
+       - anti-join NOT EXISTS sur swipe (uk_swipe_freelance_mission)
+       - client chargé par fetch join (pas de N+1 dans toSummaryDTO)
+       - cursor = dernier id reçu (null = première page), tri id DESC */
+    @Query("""
+      select m from Mission m
+      join fetch m.client c
+      where m.statut = com.projet.freelencetinder.models.Mission$Statut.EN_ATTENTE
+        and m.verrouillee = false
+        and (m.dateLimiteCandidature is null or m.dateLimiteCandidature >= :today)
+        and (:categorie is null or m.categorie = :categorie)
+        and (:cursor is null or m.id < :cursor)
+        and c.id <> :freelanceId
+        and not exists (
+          select 1 from Swipe s
+          where s.mission.id = m.id and s.freelance.id = :freelanceId
+        )
+      order by m.id desc
+    """)
+    List<Mission> findSwipeFeed(@Param("freelanceId") Long freelanceId,
+                                @Param("categorie") Mission.Categorie categorie,
+                                @Param("cursor") Long cursor,
+                                @Param("today") LocalDate today,
+                                Pageable pageable);
+
+    /* ===== Attribution atomique (match / assignation) =====
+       Un seul UPDATE conditionnel : 1 = mission obtenue, 0 = déjà prise / verrouillée.
+       Pas de lecture préalable de la version : deux LIKE concurrents ne se bloquent pas,
+       le perdant voit simplement 0 ligne modifiée. Version incrémentée pour invalider
+       les entités chargées ailleurs. */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+      update Mission m
+         set m.freelanceSelectionne = :freelance,
+             m.statut = com.projet.freelencetinder.models.Mission$Statut.EN_COURS,
+             m.verrouillee = true,
+             m.dateAffectation = :now,
+             m.version = m.version + 1
+       where m.id = :missionId
+         and m.statut = com.projet.freelencetinder.models.Mission$Statut.EN_ATTENTE
+         and m.verrouillee = false
+    """)
+    int claimForFreelance(@Param("missionId") Long missionId,
+                          @Param("freelance") Utilisateur freelance,
+                          @Param("now") LocalDateTime now);
+
+    /* ===== Index de recommandation (MissionSkillIndex) ===== */
+    @Query("""
+      select distinct m from Mission m
+      left join fetch m.client
+      left join fetch m.competencesRequises
+      where m.statut = com.projet.freelencetinder.models.Mission$Statut.EN_ATTENTE
+        and m.verrouillee = false
+    """)
+    List<Mission> findOpenForIndex();
+
+    @Query("""
+      select distinct m from Mission m
+      left join fetch m.client
+      left join fetch m.competencesRequises
+      where m.id = :id
+    """)
+    Optional<Mission> findForIndexById(@Param("id") Long id);
+
+    @Query("""
+      select distinct m from Mission m
+      left join fetch m.client
+      left join fetch m.competencesRequises
+      where m.id in :ids
+    """)
+    List<Mission> findForIndexByIds(@Param("ids") Collection<Long> ids);
+
+    /* Missions ouvertes dont le vecteur competence_ids recoupe :ids (index GIN, opérateur &&),
+       plus celles sans compétence requise. :ids = littéral tableau PostgreSQL, ex. "{3,17,42}". */
+    @Query(value = """
+      select m.id from mission m
+      where m.statut = 'EN_ATTENTE'
+        and m.verrouillee = false
+        and (m.competence_ids && cast(:ids as integer[])
+             or coalesce(cardinality(m.competence_ids), 0) = 0)
+    """, nativeQuery = true)
+    List<Long> findOpenIdsBySkillOverlap(@Param("ids") String idsArrayLiteral);
+
+    /* Parmi :ids, missions encore swipables (même règle que Mission.estDisponiblePourSwipe) :
+       réconciliation des decks STOMP quand les changements viennent d'autres nœuds. */
+    @Query("""
+      select m.id from Mission m
+      where m.id in :ids
+        and m.statut = com.projet.freelencetinder.models.Mission$Statut.EN_ATTENTE
+        and m.verrouillee = false
+        and (m.dateLimiteCandidature is null or m.dateLimiteCandidature >= :today)
+    """)
+    List<Long> findSwipableIds(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today);
+
+    /** Chargement final du top-K : client en fetch join pour le mapping DTO. */
+    @Query("select m from Mission m join fetch m.client where m.id in :ids")
+    List<Mission> findAllWithClientByIdIn(@Param("ids") Collection<Long> ids);
 
 }
@@ -1,17 +1,23 @@
 // SwipeRepository.java
 package com.projet.freelencetinder.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Swipe;
 
 public interface SwipeRepository extends JpaRepository<Swipe, Long> {
 
     Optional<Swipe> findByFreelanceIdAndMissionId(Long freelanceId, Long missionId);
 
+    boolean existsByFreelanceIdAndMissionId(Long freelanceId, Long missionId);
+
     List<Swipe> findByFreelanceId(Long freelanceId);
     
     List<Swipe> findByFreelanceIdAndDecision(Long freelanceId, Swipe.Decision decision);
@@ -21,5 +27,47 @@ public interface SwipeRepository extends JpaRepository<Swipe, Long> {
     /* NOUVEAU ----------------------------------------------------------------- */
     /** Tous les swipes LIKE d’une mission (côté freelances). */
     List<Swipe> findByMissionIdAndDecision(Long missionId, Swipe.Decision decision);
-    
+
+    /* ===== Projections légères pour les recommandations (pas d'entités chargées) ===== */
+    @Query("select s.mission.id from Swipe s where s.freelance.id = :freelanceId")
+    List<Long> findMissionIdsByFreelanceId(@Param("freelanceId") Long freelanceId);
+
+    /** Confirmation des positifs du filtre de Bloom (SwipeSeenFilter). */
+    @Query("""
+      select s.mission.id from Swipe s
+      where s.freelance.id = :freelanceId and s.mission.id in :missionIds
+    """)
+    List<Long> findSwipedMissionIds(@Param("freelanceId") Long freelanceId,
+                                    @Param("missionIds") Collection<Long> missionIds);
+
+    @Query("""
+      select distinct s.mission.categorie from Swipe s
+      where s.freelance.id = :freelanceId and s.decision = :decision
+    """)
+    List<Mission.Categorie> findMissionCategoriesByFreelanceIdAndDecision(@Param("freelanceId") Long freelanceId,
+                                                                         @Param("decision") Swipe.Decision decision);
+
+    /* ===== Likes des missions ouvertes (MutualLikeIndex) ; missionId null = toutes ===== */
+    interface MissionLikeRow {
+        Long getMissionId();
+        Long getFreelanceId();
+    }
+
+    @Query("""
+      select s.mission.id as missionId, s.freelance.id as freelanceId from Swipe s
+      where s.decision = :decision
+        and (:missionId is null or s.mission.id = :missionId)
+        and s.mission.statut = com.projet.freelencetinder.models.Mission$Statut.EN_ATTENTE
+        and s.mission.verrouillee = false
+    """)
+    List<MissionLikeRow> findOpenMissionLikes(@Param("missionId") Long missionId,
+                                              @Param("decision") Swipe.Decision decision);
+
+    /** Ids des freelances ayant swipé la mission avec cette décision (vue client). */
+    @Query("""
+      select s.freelance.id from Swipe s
+      where s.mission.id = :missionId and s.decision = :decision
+    """)
+    List<Long> findFreelanceIdsByMissionIdAndDecision(@Param("missionId") Long missionId,
+                                                      @Param("decision") Swipe.Decision decision);
 }
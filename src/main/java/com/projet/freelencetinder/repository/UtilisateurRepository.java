@@ -1,17 +1,28 @@
 package com.projet.freelencetinder.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Utilisateur;
 
 @Repository
 public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long> {
     boolean existsByEmail(String email);
     Optional<Utilisateur> findByEmail(String email);
+
+    /* Résolution du principal sans charger l'entité (cf. UserIdentityCache) */
+    @Query("select u.id from Utilisateur u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("select u.email from Utilisateur u where u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
     
     
     
@@ -24,4 +35,121 @@ public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>
     """)
     java.math.BigDecimal totalGagneParFreelance(Long freelanceId);
 
+    /* ===== Index de découverte freelances (FreelanceDiscoveryIndex) =====
+       Projections scalaires : aucune entité ni collection lazy chargée.
+       userId null = tous les freelances actifs (reconstruction complète). */
+    public interface FreelanceNoteRow {
+        Long getUserId();
+        Double getNoteMoyenne();
+    }
+
+    public interface FreelanceCategorieRow {
+        Long getUserId();
+        Mission.Categorie getCategorie();
+    }
+
+    public interface FreelanceCompetenceRow {
+        Long getUserId();
+        String getCompetence();
+    }
+
+    @Query("""
+      select u.id as userId, u.noteMoyenne as noteMoyenne
+      from Utilisateur u
+      where u.typeUtilisateur = com.projet.freelencetinder.models.Utilisateur$TypeUtilisateur.FREELANCE
+        and u.estActif = true
+        and (:userId is null or u.id = :userId)
+    """)
+    List<FreelanceNoteRow> findActiveFreelanceNotes(@Param("userId") Long userId);
+
+    @Query("""
+      select u.id as userId, c as categorie
+      from Utilisateur u join u.categories c
+      where u.typeUtilisateur = com.projet.freelencetinder.models.Utilisateur$TypeUtilisateur.FREELANCE
+        and u.estActif = true
+        and (:userId is null or u.id = :userId)
+    """)
+    List<FreelanceCategorieRow> findActiveFreelanceCategories(@Param("userId") Long userId);
+
+    @Query("""
+      select u.id as userId, s as competence
+      from Utilisateur u join u.competences s
+      where u.typeUtilisateur = com.projet.freelencetinder.models.Utilisateur$TypeUtilisateur.FREELANCE
+        and u.estActif = true
+        and (:userId is null or u.id = :userId)
+    """)
+    List<FreelanceCompetenceRow> findActiveFreelanceCompetences(@Param("userId") Long userId);
+
+    /* Vivier d'une seule catégorie : classement lu en base (mode multi-instances) */
+    @Query("""
+      select u.id as userId, u.noteMoyenne as noteMoyenne
+      from Utilisateur u join u.categories c
+      where u.typeUtilisateur = com.projet.freelencetinder.models.Utilisateur$TypeUtilisateur.FREELANCE
+        and u.estActif = true
+        and c = :categorie
+    """)
+    List<FreelanceNoteRow> findActiveFreelanceNotesByCategorie(@Param("categorie") Mission.Categorie categorie);
+
+    @Query("""
+      select u.id as userId, s as competence
+      from Utilisateur u join u.categories c join u.competences s
+      where u.typeUtilisateur = com.projet.freelencetinder.models.Utilisateur$TypeUtilisateur.FREELANCE
+        and u.estActif = true
+        and c = :categorie
+    """)
+    List<FreelanceCompetenceRow> findActiveFreelanceCompetencesByCategorie(@Param("categorie") Mission.Categorie categorie);
+
+    /* ===== Assemblage groupé des FreelanceSummaryDTO (FreelanceSummaryBulkAssembler) =====
+       Une requête IN (:ids) par table de collection, au lieu d'un SELECT lazy par profil. */
+    public interface UserValueRow {
+        Long getUserId();
+        String getValeur();
+    }
+
+    public interface UserEngagementRow {
+        Long getUserId();
+        Utilisateur.EngagementModel getModele();
+    }
+
+    public interface UserLangueRow {
+        Long getUserId();
+        Utilisateur.Langue getLangue();
+        Utilisateur.NiveauLangue getNiveau();
+    }
+
+    public interface UserCompetenceNiveauRow {
+        Long getUserId();
+        String getCompetence();
+        Utilisateur.NiveauMaitrise getNiveau();
+    }
+
+    @Query("select u.id as userId, c as valeur from Utilisateur u join u.competences c where u.id in :ids")
+    List<UserValueRow> findCompetencesByUserIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.id as userId, p as valeur from Utilisateur u join u.portfolioUrls p where u.id in :ids")
+    List<UserValueRow> findPortfolioUrlsByUserIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.id as userId, b as valeur from Utilisateur u join u.listeBadges b where u.id in :ids")
+    List<UserValueRow> findBadgesByUserIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.id as userId, c as valeur from Utilisateur u join u.certifications c where u.id in :ids")
+    List<UserValueRow> findCertificationsByUserIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.id as userId, e as modele from Utilisateur u join u.modelesEngagementPreferes e where u.id in :ids")
+    List<UserEngagementRow> findEngagementModelsByUserIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+      select u.id as userId, key(l) as langue, value(l) as niveau
+      from Utilisateur u join u.langues l
+      where u.id in :ids
+    """)
+    List<UserLangueRow> findLanguesByUserIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+      select u.id as userId, key(c) as competence, value(c) as niveau
+      from Utilisateur u join u.competencesNiveaux c
+      where u.id in :ids
+    """)
+    List<UserCompetenceNiveauRow> findCompetencesNiveauxByUserIds(@Param("ids") Collection<Long> ids);
+
 }
@@ -8,6 +8,7 @@ import java.util.*;
 import javax.management.RuntimeErrorException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -28,6 +29,7 @@ import com.projet.freelencetinder.models.RefreshToken;
 import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.models.Utilisateur.TypeClient;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.MatchingEvents.FreelanceProfileChangedEvent;
 
 @Service
 public class AuthService {
@@ -38,6 +40,8 @@ public class AuthService {
     @Autowired private JwtService            jwtService;
     @Autowired private UserDetailsService    userDetailsService;
     @Autowired private RefreshTokenService   refreshTokenService;
+    @Autowired private ApplicationEventPublisher publisher;
+    @Autowired private CompetenceService     competenceService;
 
     /* =================================================================
        Inscription + création du profil de base
@@ -142,8 +146,10 @@ public class AuthService {
 
         /* ---------- Normalisation ---------- */
         normalizeCollections(u);
+        competenceService.syncSkillVector(u);
 
         userRepo.save(u);
+        publisher.publishEvent(new FreelanceProfileChangedEvent(u.getId()));
     }
 
     /* =================================================================
@@ -1,55 +1,61 @@
 package com.projet.freelencetinder.servcie;
 
 import com.projet.freelencetinder.dto.ChatMessageResponse;
+import com.projet.freelencetinder.dto.ReadReceiptEvent;
 import com.projet.freelencetinder.dto.SendMessageRequest;
 import com.projet.freelencetinder.models.ChatMessage;
-import com.projet.freelencetinder.models.Conversation;
-import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.repository.ChatMessageRepository;
 import com.projet.freelencetinder.repository.ConversationRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
-import org.springframework.data.domain.Page;
+import com.projet.freelencetinder.repository.ChatMessageRepository.MessageRow;
+import com.projet.freelencetinder.repository.ConversationRepository.ReadMarks;
+import com.projet.freelencetinder.servcie.ConversationMembershipCache.Membership;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
 
 @Service
 public class ChatMessageService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final ChatMessageRepository messageRepo;
     private final ConversationRepository conversationRepo;
     private final UtilisateurRepository userRepo;
     private final SimpMessagingTemplate broker;
+    private final ConversationMembershipCache membership;
+    private final UserIdentityCache identities;
 
     public ChatMessageService(ChatMessageRepository messageRepo,
                               ConversationRepository conversationRepo,
                               UtilisateurRepository userRepo,
-                              SimpMessagingTemplate broker) {
+                              SimpMessagingTemplate broker,
+                              ConversationMembershipCache membership,
+                              UserIdentityCache identities) {
         this.messageRepo = messageRepo;
         this.conversationRepo = conversationRepo;
         this.userRepo = userRepo;
         this.broker = broker;
+        this.membership = membership;
+        this.identities = identities;
     }
 
-    /* --------------------------------------------------------- */
+    /* ---------------------------------------------------------
+       Envoi : contrôle d'accès en mémoire (ConversationMembershipCache),
+       INSERT du message puis un seul UPDATE de la conversation.
+       Aucune lecture de conversation ni d'utilisateur.
+       --------------------------------------------------------- */
     @Transactional
     public ChatMessageResponse sendMessage(SendMessageRequest req, Long senderId) {
 
-        Conversation conv = conversationRepo
-            .findById(req.getConversationId())
-            .orElseThrow(() -> new IllegalArgumentException("Conversation inexistante"));
-
-        Utilisateur sender = userRepo.getReferenceById(senderId);
-
-        // Vérifie que l'expéditeur appartient à la conversation
-        if (!isParticipant(conv, senderId)) {
-            throw new IllegalStateException("Accès refusé");
-        }
-
-        Utilisateur receiver = sender.getId().equals(conv.getClient().getId())
-            ? conv.getFreelance()
-            : conv.getClient();
+        Membership members = membership.requireParticipant(req.getConversationId(), senderId);
+        Long receiverId = members.otherOf(senderId);
 
         ChatMessage.MessageType type = resolveType(req.getType());
         if (type == ChatMessage.MessageType.FILE && (req.getFileUrl() == null || req.getFileUrl().isBlank())) {
@@ -57,9 +63,9 @@ public class ChatMessageService {
         }
 
         ChatMessage msg = new ChatMessage();
-        msg.setConversation(conv);
-        msg.setSender(sender);
-        msg.setReceiver(receiver);
+        msg.setConversation(conversationRepo.getReferenceById(members.conversationId()));
+        msg.setSender(userRepo.getReferenceById(senderId));
+        msg.setReceiver(userRepo.getReferenceById(receiverId));
         msg.setContent(req.getContent() != null ? req.getContent().trim() : "");
         msg.setType(type);
         msg.setFileUrl(req.getFileUrl());
@@ -67,52 +73,84 @@ public class ChatMessageService {
 
         ChatMessage saved = messageRepo.save(msg);
 
-        // Mise à jour snapshot conversation
-        conv.setLastMessageAt(saved.getSentAt());
-        conv.setLastMessageType(saved.getType());
-        conv.setLastMessageContent(saved.getContent());
-        conversationRepo.save(conv);
+        // Snapshot conversation + non lus du destinataire : un UPDATE, sans lecture préalable
+        boolean toClient = members.isClient(receiverId);
+        conversationRepo.applyNewMessage(members.conversationId(), saved.getId(), saved.getSentAt(),
+            saved.getType(), saved.getContent(), toClient ? 1 : 0, toClient ? 0 : 1);
 
-        ChatMessageResponse resp = toDto(saved);
+        ChatMessageResponse resp = toDto(saved, false);
 
         // Diffusion WebSocket
-        broker.convertAndSend("/topic/conversations/" + conv.getId(), resp);
-        broker.convertAndSendToUser(receiver.getEmail(), "/queue/messages", resp);
+        broker.convertAndSend("/topic/conversations/" + members.conversationId(), resp);
+        broker.convertAndSendToUser(identities.emailOf(receiverId), "/queue/messages", resp);
 
         return resp;
     }
 
-    /* --------------------------------------------------------- */
+    /* ---------------------------------------------------------
+       Historique keyset par id de message :
+       - beforeId : page plus ancienne (null = derniers messages), ordre décroissant ;
+       - afterId  : messages arrivés depuis, ordre croissant.
+       Pas de COUNT, ni doublon ni trou si des messages arrivent entre deux pages.
+       --------------------------------------------------------- */
     @Transactional(readOnly = true)
-    public Page<ChatMessageResponse> getConversationMessages(Long conversationId,
-                                                             int page, int size,
-                                                             Long requesterId) {
-        // Sécurité : vérifie que le demandeur est participant
-        Conversation conv = conversationRepo.findById(conversationId)
-            .orElseThrow(() -> new IllegalArgumentException("Conversation inexistante"));
-        if (!isParticipant(conv, requesterId)) {
-            throw new IllegalStateException("Accès refusé");
+    public Slice<ChatMessageResponse> getConversationMessages(Long conversationId,
+                                                              Long beforeId, Long afterId,
+                                                              int size, Long requesterId) {
+        if (beforeId != null && afterId != null) {
+            throw new IllegalArgumentException("beforeId et afterId sont exclusifs");
         }
-
-        return messageRepo
-            .findByConversationIdOrderBySentAtDesc(conversationId, PageRequest.of(page, size))
-            .map(this::toDto);
+        // Sécurité : vérifie que le demandeur est participant (en mémoire)
+        Membership members = membership.requireParticipant(conversationId, requesterId);
+
+        // "vu" = id <= high-water mark du destinataire du message
+        ReadMarks marks = conversationRepo.findReadMarks(conversationId);
+        long clientMark = marks.getClientMark();
+        long freelanceMark = marks.getFreelanceMark();
+        Long clientId = members.clientId();
+
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE)));
+        Slice<MessageRow> rows = afterId != null
+            ? messageRepo.findAfter(conversationId, afterId, page)
+            : messageRepo.findBefore(conversationId, beforeId, page);
+
+        return rows.map(r -> toDto(conversationId, r,
+            r.getId() <= (r.getReceiverId().equals(clientId) ? clientMark : freelanceMark)));
     }
 
     /* --------------------------------------------------------- */
     @Transactional
     public void markConversationSeen(Long conversationId, Long userId) {
-        Conversation conv = conversationRepo.findById(conversationId)
-            .orElseThrow(() -> new IllegalArgumentException("Conversation inexistante"));
-        if (!isParticipant(conv, userId)) {
-            throw new IllegalStateException("Accès refusé");
-        }
-        messageRepo.markAllAsSeen(conversationId, userId);
+        Membership members = membership.requireParticipant(conversationId, userId);
+
+        // une seule ligne modifiée, quel que soit le nombre de messages non lus
+        boolean isClient = members.isClient(userId);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = isClient
+            ? conversationRepo.markSeenByClient(conversationId, now)
+            : conversationRepo.markSeenByFreelance(conversationId, now);
+        if (updated == 0) return; // déjà à jour : pas d'accusé
+
+        // Accusé de lecture à l'autre participant, après commit (mark relue après l'UPDATE)
+        ReadMarks marks = conversationRepo.findReadMarks(conversationId);
+        ReadReceiptEvent receipt = new ReadReceiptEvent(conversationId, userId,
+            isClient ? marks.getClientMark() : marks.getFreelanceMark(), now);
+        String otherEmail = identities.emailOf(members.otherOf(userId));
+        afterCommit(() -> broker.convertAndSendToUser(otherEmail, "/queue/read-receipts", receipt));
     }
 
     /* --------------------------------------------------------- */
-    private boolean isParticipant(Conversation c, Long userId) {
-        return c.getClient().getId().equals(userId) || c.getFreelance().getId().equals(userId);
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     private ChatMessage.MessageType resolveType(String raw) {
@@ -124,7 +162,22 @@ public class ChatMessageService {
         }
     }
 
-    private ChatMessageResponse toDto(ChatMessage m) {
+    private ChatMessageResponse toDto(Long conversationId, MessageRow r, boolean seen) {
+        return new ChatMessageResponse(
+            r.getId(),
+            conversationId,
+            r.getSenderId(),
+            r.getReceiverId(),
+            r.getContent(),
+            r.getType().name(),
+            r.getFileUrl(),
+            r.getFileType(),
+            r.getSentAt(),
+            seen
+        );
+    }
+
+    private ChatMessageResponse toDto(ChatMessage m, boolean seen) {
         return new ChatMessageResponse(
             m.getId(),
             m.getConversation().getId(),
@@ -135,7 +188,7 @@ public class ChatMessageService {
             m.getFileUrl(),
             m.getFileType(),
             m.getSentAt(),
-            m.isSeen()
+            seen
         );
     }
 }
\ No newline at end of file
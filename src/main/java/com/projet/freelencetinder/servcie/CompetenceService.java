@@ -8,8 +8,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import com.projet.freelencetinder.catalog.CanonicalSkills;
 import com.projet.freelencetinder.catalog.CompetenceRegistry;
 import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Utilisateur;
 
 @Service
 public class CompetenceService {
@@ -42,6 +44,28 @@ public class CompetenceService {
         return CompetenceRegistry.toCanonicalOrNull(input);
     }
 
+    /** Représentation compacte (ids entiers) pour les calculs de recouvrement. */
+    public CanonicalSkills canonicalize(Collection<String> raw) {
+        return CanonicalSkills.of(raw);
+    }
+
+    /** Ids catalogue triés (vecteur persisté competence_ids). */
+    public int[] skillIdsOf(Collection<String> raw) {
+        return canonicalize(raw).ids();
+    }
+
+    /** Recalcule le vecteur persisté d'une mission après modification de ses compétences. */
+    public void syncSkillVector(Mission mission) {
+        mission.setCompetenceIds(skillIdsOf(mission.getCompetencesRequises()));
+        mission.setCompetenceCatalogVersion(CompetenceRegistry.CATALOG_VERSION);
+    }
+
+    /** Recalcule le vecteur persisté d'un profil après modification de ses compétences. */
+    public void syncSkillVector(Utilisateur utilisateur) {
+        utilisateur.setCompetenceIds(skillIdsOf(utilisateur.getCompetences()));
+        utilisateur.setCompetenceCatalogVersion(CompetenceRegistry.CATALOG_VERSION);
+    }
+
     public Set<Mission.Categorie> categoriesOf(String canonicalSkill) {
         return CompetenceRegistry.categoriesOf(canonicalSkill);
     }
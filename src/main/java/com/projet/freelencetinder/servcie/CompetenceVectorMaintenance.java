@@ -0,0 +1,112 @@
+package com.projet.freelencetinder.servcie;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.projet.freelencetinder.catalog.CompetenceRegistry;
+
+/**
+ * Entretien des vecteurs competence_ids (mission / utilisateur) au démarrage :
+ *
+ * 1. index GIN (opérateur &&) – non exprimables via @Index, créés ici si absents ;
+ * 2. backfill des lignes sans vecteur ou calculées avec une autre version du catalogue
+ *    (les ids sont des rangs dans le catalogue trié : tout ajout de clé les décale).
+ *
+ * Tout se fait en JDBC par lots, sans charger d'entités.
+ */
+@Component
+public class CompetenceVectorMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(CompetenceVectorMaintenance.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbc;
+    private final CompetenceService competenceService;
+
+    public CompetenceVectorMaintenance(JdbcTemplate jdbc, CompetenceService competenceService) {
+        this.jdbc = jdbc;
+        this.competenceService = competenceService;
+    }
+
+    /* Avant la construction des index en mémoire (qui peuvent lire ces colonnes) */
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        try {
+            jdbc.execute("create index if not exists idx_mission_competence_ids on mission using gin (competence_ids)");
+            jdbc.execute("create index if not exists idx_user_competence_ids on utilisateur using gin (competence_ids)");
+        } catch (RuntimeException e) {
+            log.warn("[CompetenceVector] Création des index GIN impossible: {}", e.getMessage());
+        }
+        int missions = backfill("mission", "mission_competences_requises", "mission_id");
+        int users    = backfill("utilisateur", "utilisateur_competences", "utilisateur_id");
+        if (missions + users > 0) {
+            log.info("[CompetenceVector] Vecteurs recalculés (catalogue v{}): {} missions, {} utilisateurs",
+                    CompetenceRegistry.CATALOG_VERSION, missions, users);
+        }
+    }
+
+    private int backfill(String table, String skillTable, String fkColumn) {
+        int version = CompetenceRegistry.CATALOG_VERSION;
+        List<Long> stale = jdbc.queryForList(
+                "select id from " + table + " where competence_catalog_version is distinct from ?",
+                Long.class, version);
+
+        for (int from = 0; from < stale.size(); from += BATCH_SIZE) {
+            List<Long> ids = stale.subList(from, Math.min(from + BATCH_SIZE, stale.size()));
+
+            Map<Long, Set<String>> skills = new HashMap<>();
+            jdbc.query(con -> {
+                        PreparedStatement ps = con.prepareStatement(
+                                "select " + fkColumn + ", competence from " + skillTable + " where " + fkColumn + " = any (?)");
+                        ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+                        return ps;
+                    },
+                    (RowCallbackHandler) rs ->
+                        skills.computeIfAbsent(rs.getLong(1), k -> new HashSet<>()).add(rs.getString(2)));
+
+            List<Long> batch = new ArrayList<>(ids);
+            jdbc.batchUpdate(
+                    "update " + table + " set competence_ids = ?, competence_catalog_version = ? where id = ?",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Long id = batch.get(i);
+                            ps.setArray(1, toSqlArray(ps.getConnection(), competenceService.skillIdsOf(skills.get(id))));
+                            ps.setInt(2, version);
+                            ps.setLong(3, id);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    });
+        }
+        return stale.size();
+    }
+
+    private static Array toSqlArray(Connection con, int[] ids) throws SQLException {
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) boxed[i] = ids[i];
+        return con.createArrayOf("integer", boxed);
+    }
+}
@@ -0,0 +1,98 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.projet.freelencetinder.repository.ConversationRepository;
+
+/**
+ * Participants d'une conversation, en mémoire : le contrôle d'accès de chaque opération
+ * de chat (REST et STOMP) est une lecture de map, sans relire la conversation.
+ *
+ * - entrée immuable : client / freelance / mission d'une conversation ne changent jamais,
+ *   donc jamais d'invalidation ;
+ * - alimenté par ConversationService.findOrCreate (après commit), sinon chargé
+ *   paresseusement (une requête de projection) ; cache LRU borné.
+ */
+@Component
+public class ConversationMembershipCache {
+
+    public record Membership(Long conversationId, Long clientId, Long freelanceId, Long missionId) {
+
+        public boolean isParticipant(Long userId) {
+            return clientId.equals(userId) || freelanceId.equals(userId);
+        }
+
+        public boolean isClient(Long userId) {
+            return clientId.equals(userId);
+        }
+
+        public Long otherOf(Long userId) {
+            return isClient(userId) ? freelanceId : clientId;
+        }
+    }
+
+    private final ConversationRepository conversationRepo;
+    private final Map<Long, Membership> entries;
+
+    public ConversationMembershipCache(ConversationRepository conversationRepo,
+                                       @Value("${chat.membership-cache.max-entries:50000}") int maxEntries) {
+        this.conversationRepo = conversationRepo;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Membership> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Participants de la conversation ; IllegalArgumentException si elle n'existe pas. */
+    public Membership get(Long conversationId) {
+        synchronized (entries) {
+            Membership m = entries.get(conversationId);
+            if (m != null) return m;
+        }
+        // chargement hors verrou : deux chargements concurrents donnent la même entrée
+        Membership m = conversationRepo.findMembership(conversationId)
+            .map(r -> new Membership(conversationId, r.getClientId(), r.getFreelanceId(), r.getMissionId()))
+            .orElseThrow(() -> new IllegalArgumentException("Conversation inexistante"));
+        synchronized (entries) {
+            Membership existing = entries.putIfAbsent(conversationId, m);
+            return existing != null ? existing : m;
+        }
+    }
+
+    /** Participant ou IllegalStateException (même message que les contrôles historiques). */
+    public Membership requireParticipant(Long conversationId, Long userId) {
+        Membership m = get(conversationId);
+        if (!m.isParticipant(userId)) {
+            throw new IllegalStateException("Accès refusé");
+        }
+        return m;
+    }
+
+    /** Conversation créée ou retrouvée : mise en cache après commit (jamais d'id annulé). */
+    public void remember(Long conversationId, Long clientId, Long freelanceId, Long missionId) {
+        Membership m = new Membership(conversationId, clientId, freelanceId, missionId);
+        Runnable put = () -> {
+            synchronized (entries) {
+                entries.putIfAbsent(conversationId, m);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put.run();
+                }
+            });
+        } else {
+            put.run();
+        }
+    }
+}
@@ -5,41 +5,48 @@ import com.projet.freelencetinder.models.ChatMessage;
 import com.projet.freelencetinder.models.Conversation;
 import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Utilisateur;
-import com.projet.freelencetinder.repository.ChatMessageRepository;
 import com.projet.freelencetinder.repository.ConversationRepository;
 import com.projet.freelencetinder.repository.MissionRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class ConversationService {
 
+    private static final Logger log = LoggerFactory.getLogger(ConversationService.class);
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+    private static final String READ_STATE_MIGRATION = "chat-read-state-from-seen";
+
     private final ConversationRepository conversationRepo;
-    private final ChatMessageRepository messageRepo;
     private final MissionRepository missionRepo;
     private final UtilisateurRepository userRepo;
+    private final ConversationMembershipCache membership;
 
     public ConversationService(ConversationRepository conversationRepo,
-                               ChatMessageRepository messageRepo,
                                MissionRepository missionRepo,
-                               UtilisateurRepository userRepo) {
+                               UtilisateurRepository userRepo,
+                               ConversationMembershipCache membership) {
         this.conversationRepo = conversationRepo;
-        this.messageRepo = messageRepo;
         this.missionRepo = missionRepo;
         this.userRepo = userRepo;
+        this.membership = membership;
     }
 
     /* -------------------------------------------------------------------- */
     @Transactional
     public Conversation findOrCreate(Long missionId, Long clientId, Long freelanceId) {
 
-        return conversationRepo
+        Conversation conv = conversationRepo
             .findByMissionIdAndClientIdAndFreelanceId(missionId, clientId, freelanceId)
             .orElseGet(() -> {
                 Mission mission = missionRepo.getReferenceById(missionId);
@@ -60,41 +67,71 @@ public class ConversationService {
                         .orElseThrow();
                 }
             });
+        // participants connus : le premier message n'aura pas à les relire
+        membership.remember(conv.getId(), clientId, freelanceId, missionId);
+        return conv;
     }
 
-    /* -------------------------------------------------------------------- */
+    /* --------------------------------------------------------------------
+       Boîte de réception (keyset) : beforeAt / beforeId = lastMessageAt et
+       conversationId de la dernière ligne reçue, null pour la première page.
+       Une seule requête par page (non lus et autre participant inclus).
+       -------------------------------------------------------------------- */
     @Transactional(readOnly = true)
-    public List<ConversationSummaryDto> getUserConversations(Long userId, int page, int size) {
+    public List<ConversationSummaryDto> getUserConversations(Long userId,
+                                                             LocalDateTime beforeAt,
+                                                             Long beforeId,
+                                                             int size) {
+        if (beforeAt != null && beforeId == null) {
+            throw new IllegalArgumentException("beforeId requis avec beforeAt");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_INBOX_PAGE_SIZE));
 
         return conversationRepo
-            .findByClientIdOrFreelanceIdOrderByLastMessageAtDesc(
-                userId, userId, PageRequest.of(page, size))
+            .findInbox(userId, beforeAt, beforeId, pageSize)
             .stream()
-            .map(c -> {
-                boolean isClient = c.getClient().getId().equals(userId);
-                Utilisateur other = isClient ? c.getFreelance() : c.getClient();
-
-                long unread = messageRepo
-                    .countByConversationIdAndReceiverIdAndSeenFalse(c.getId(), userId);
-
-                String preview = buildPreview(c.getLastMessageContent(), c.getLastMessageType());
-
-                return new ConversationSummaryDto(
-                    c.getId(),
-                    c.getMission().getId(),
-                    c.getMission().getTitre(),
-                    other.getId(),
-                    other.getNomComplet(),
-                    other.getPhotoProfilUrl(),
-                    preview,
-                    c.getLastMessageType() != null ? c.getLastMessageType().name() : null,
-                    c.getLastMessageAt(),
-                    (int) unread
-                );
-            })
+            .map(r -> new ConversationSummaryDto(
+                r.getConversationId(),
+                r.getMissionId(),
+                r.getMissionTitre(),
+                r.getOtherUserId(),
+                nomComplet(r.getOtherNom(), r.getOtherPrenom()),
+                r.getOtherPhotoUrl(),
+                buildPreview(r.getLastMessageContent(), r.getLastMessageType()),
+                r.getLastMessageType() != null ? r.getLastMessageType().name() : null,
+                r.getLastMessageAt(),
+                r.getUnreadCount()))
             .collect(Collectors.toList());
     }
 
+    /* Badge global : somme des compteurs par conversation (pas de COUNT sur chat_message) */
+    @Transactional(readOnly = true)
+    public long getUnreadTotal(Long userId) {
+        return conversationRepo.sumUnreadForUser(userId);
+    }
+
+    /* Bases antérieures aux high-water marks : reprise unique depuis chat_message.seen (un
+       côté n'est repris que si son mark est null), colonne rendue inoffensive pour les INSERT ;
+       jamais supprimée au démarrage (une instance en ancienne version peut encore la lire) */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void migrateReadState() {
+        if (!conversationRepo.hasLegacySeenColumn()) return;
+        conversationRepo.relaxLegacySeenColumn();
+        conversationRepo.ensureDataMigrationTable();
+        if (conversationRepo.claimDataMigration(READ_STATE_MIGRATION) == 0) return;
+        int n = conversationRepo.backfillReadState();
+        log.info("[Conversation] état de lecture repris pour {} conversations depuis chat_message.seen", n);
+    }
+
+    /* Conversations créées avant l'initialisation de lastMessageAt à la création */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillLastMessageAt() {
+        int n = conversationRepo.backfillLastMessageAt();
+        if (n > 0) log.info("[Conversation] lastMessageAt initialisé pour {} conversations sans message", n);
+    }
+
     /* -------------------------------------------------------------------- */
     private String buildPreview(String content, ChatMessage.MessageType type) {
         if (type == null) return null;
@@ -103,6 +140,11 @@ public class ConversationService {
         return safeTruncate(content, 120);
     }
 
+    /* même format que Utilisateur.getNomComplet() */
+    private static String nomComplet(String nom, String prenom) {
+        return (nom != null ? nom : "") + " " + (prenom != null ? prenom : "");
+    }
+
     private String safeTruncate(String txt, int max) {
         if (txt == null) return null;
         return txt.length() <= max ? txt : txt.substring(0, max - 3) + "...";
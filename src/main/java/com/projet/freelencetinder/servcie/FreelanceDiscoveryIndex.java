@@ -0,0 +1,203 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projet.freelencetinder.catalog.CanonicalSkills;
+import com.projet.freelencetinder.config.StompBrokerProperties;
+import com.projet.freelencetinder.models.Mission.Categorie;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceCategorieRow;
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceCompetenceRow;
+import com.projet.freelencetinder.repository.UtilisateurRepository.FreelanceNoteRow;
+import com.projet.freelencetinder.servcie.MatchingEvents.FreelanceProfileChangedEvent;
+
+/**
+ * Index de découverte côté client : catégorie -> freelances, compétences en bitset par freelance.
+ *
+ * - ne contient que les freelances actifs ;
+ * - construit au démarrage par projections (pas d'entités), puis tenu à jour
+ *   via FreelanceProfileChangedEvent (après commit) ;
+ * - classement : compétences communes avec la mission, puis note, puis id ;
+ * - plusieurs instances (stomp.broker.mode=RELAY) : un profil modifié sur un autre nœud
+ *   n'arrive pas ici, pas d'index ; le vivier de la catégorie est relu en base à chaque
+ *   classement (mêmes projections, même ordre).
+ */
+@Component
+public class FreelanceDiscoveryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FreelanceDiscoveryIndex.class);
+
+    record IndexedFreelance(Long id, Set<Categorie> categories, CanonicalSkills competences, double note) {}
+
+    private record Ranked(Long id, int overlap, double note) {}
+
+    /** Du meilleur au moins bon. */
+    private static final Comparator<Ranked> MEILLEUR_D_ABORD = Comparator
+            .comparingInt(Ranked::overlap).reversed()
+            .thenComparing(Comparator.comparingDouble(Ranked::note).reversed())
+            .thenComparing(Ranked::id);
+
+    private final UtilisateurRepository utilisateurRepository;
+    private final CompetenceService competenceService;
+
+    private final Map<Long, IndexedFreelance> freelances = new ConcurrentHashMap<>();
+    private final Map<Categorie, Set<Long>> parCategorie = Collections.synchronizedMap(new EnumMap<>(Categorie.class));
+    private final boolean enabled;
+
+    public FreelanceDiscoveryIndex(UtilisateurRepository utilisateurRepository,
+                                   CompetenceService competenceService,
+                                   StompBrokerProperties brokerProps) {
+        this.utilisateurRepository = utilisateurRepository;
+        this.competenceService = competenceService;
+        this.enabled = !brokerProps.isRelay(); // état par JVM : valable sur une seule instance
+    }
+
+    /* ===================== Construction / mises à jour ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            log.info("[FreelanceDiscoveryIndex] désactivé (plusieurs instances) : classement lu en base");
+            return;
+        }
+        freelances.clear();
+        parCategorie.clear();
+        load(null).values().forEach(this::put);
+        log.info("[FreelanceDiscoveryIndex] {} freelances actifs indexés", freelances.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfileChanged(FreelanceProfileChangedEvent event) {
+        if (!enabled) return;
+        refresh(event.userId());
+    }
+
+    public synchronized void refresh(Long userId) {
+        if (userId == null) return;
+        remove(userId);
+        IndexedFreelance f = load(userId).get(userId);
+        if (f != null) put(f);
+    }
+
+    /** Charge les snapshots via les trois projections (userId null = tous). */
+    private Map<Long, IndexedFreelance> load(Long userId) {
+        Map<Long, Double> notes = new HashMap<>();
+        for (FreelanceNoteRow r : utilisateurRepository.findActiveFreelanceNotes(userId)) {
+            notes.put(r.getUserId(), r.getNoteMoyenne());
+        }
+        Map<Long, Set<Categorie>> cats = new HashMap<>();
+        for (FreelanceCategorieRow r : utilisateurRepository.findActiveFreelanceCategories(userId)) {
+            cats.computeIfAbsent(r.getUserId(), k -> EnumSet.noneOf(Categorie.class)).add(r.getCategorie());
+        }
+        Map<Long, Set<String>> skills = new HashMap<>();
+        for (FreelanceCompetenceRow r : utilisateurRepository.findActiveFreelanceCompetences(userId)) {
+            if (r.getCompetence() == null) continue;
+            skills.computeIfAbsent(r.getUserId(), k -> new HashSet<>()).add(r.getCompetence());
+        }
+
+        Map<Long, IndexedFreelance> out = new HashMap<>(notes.size() * 2);
+        notes.forEach((id, note) -> out.put(id, new IndexedFreelance(
+                id,
+                Collections.unmodifiableSet(cats.getOrDefault(id, EnumSet.noneOf(Categorie.class))),
+                competenceService.canonicalize(skills.get(id)),
+                note != null ? note : 0.0)));
+        return out;
+    }
+
+    /** Freelances actifs d'une catégorie, lus en base (catégories réduites à celle demandée). */
+    private Map<Long, IndexedFreelance> loadCategorie(Categorie categorie) {
+        Map<Long, Set<String>> skills = new HashMap<>();
+        for (FreelanceCompetenceRow r : utilisateurRepository.findActiveFreelanceCompetencesByCategorie(categorie)) {
+            if (r.getCompetence() == null) continue;
+            skills.computeIfAbsent(r.getUserId(), k -> new HashSet<>()).add(r.getCompetence());
+        }
+        Map<Long, IndexedFreelance> out = new HashMap<>();
+        for (FreelanceNoteRow r : utilisateurRepository.findActiveFreelanceNotesByCategorie(categorie)) {
+            out.put(r.getUserId(), new IndexedFreelance(
+                    r.getUserId(),
+                    Collections.unmodifiableSet(EnumSet.of(categorie)),
+                    competenceService.canonicalize(skills.get(r.getUserId())),
+                    r.getNoteMoyenne() != null ? r.getNoteMoyenne() : 0.0));
+        }
+        return out;
+    }
+
+    private void put(IndexedFreelance f) {
+        freelances.put(f.id(), f);
+        for (Categorie c : f.categories()) {
+            parCategorie.computeIfAbsent(c, k -> ConcurrentHashMap.newKeySet()).add(f.id());
+        }
+    }
+
+    private void remove(Long userId) {
+        IndexedFreelance old = freelances.remove(userId);
+        if (old == null) return;
+        for (Categorie c : old.categories()) {
+            Set<Long> ids = parCategorie.get(c);
+            if (ids != null) ids.remove(userId);
+        }
+    }
+
+    /* ===================== Lecture ===================== */
+
+    /**
+     * Ids des freelances actifs de la catégorie, classés par pertinence pour la mission, page demandée.
+     * Seuls (page+1)*size candidats sont conservés dans le tas : pas de tri complet.
+     */
+    public List<Long> rank(Categorie categorie,
+                           CanonicalSkills competencesMission,
+                           Set<Long> exclus,
+                           int page,
+                           int size) {
+        if (categorie == null) return List.of();
+        Map<Long, IndexedFreelance> source = enabled ? freelances : loadCategorie(categorie);
+        Set<Long> dansCategorie = enabled ? parCategorie.get(categorie) : source.keySet();
+        if (dansCategorie == null || dansCategorie.isEmpty()) return List.of();
+
+        CanonicalSkills missionSkills = competencesMission != null ? competencesMission : CanonicalSkills.EMPTY;
+
+        // calcul en long : (page+1)*size ne doit ni déborder ni dimensionner le tas au-delà du vivier
+        long offset = (long) page * size;
+        if (offset >= dansCategorie.size()) return List.of();
+        int limit = (int) Math.min(offset + size, dansCategorie.size());
+        PriorityQueue<Ranked> top = new PriorityQueue<>(limit + 1, MEILLEUR_D_ABORD.reversed());
+        for (Long id : dansCategorie) {
+            if (exclus.contains(id)) continue;
+            IndexedFreelance f = source.get(id);
+            if (f == null) continue;
+            // compétences communes : ET binaire + popcount, sans allocation
+            top.offer(new Ranked(id, f.competences().intersectionCount(missionSkills), f.note()));
+            if (top.size() > limit) top.poll();
+        }
+
+        List<Ranked> ranked = new ArrayList<>(top);
+        ranked.sort(MEILLEUR_D_ABORD);
+        int from = (int) Math.min(offset, ranked.size());
+        List<Long> out = new ArrayList<>(ranked.size() - from);
+        for (Ranked r : ranked.subList(from, ranked.size())) out.add(r.id());
+        return out;
+    }
+
+    public int size() {
+        return freelances.size();
+    }
+}
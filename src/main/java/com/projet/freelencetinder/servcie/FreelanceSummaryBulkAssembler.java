@@ -0,0 +1,122 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.projet.freelencetinder.dto.FreelanceSummaryAssembler;
+import com.projet.freelencetinder.dto.FreelanceSummaryAssembler.ProfileCollections;
+import com.projet.freelencetinder.dto.FreelanceSummaryDTO;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.models.Utilisateur.EngagementModel;
+import com.projet.freelencetinder.models.Utilisateur.Langue;
+import com.projet.freelencetinder.models.Utilisateur.NiveauLangue;
+import com.projet.freelencetinder.models.Utilisateur.NiveauMaitrise;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository.UserValueRow;
+
+/**
+ * Construction groupée de FreelanceSummaryDTO.
+ *
+ * Les champs scalaires viennent des entités (1 requête), chaque table de collection
+ * est lue une seule fois via IN (:ids) : 1 + 7 requêtes quel que soit le nombre de cartes,
+ * au lieu d'une dizaine de SELECT lazy par profil.
+ */
+@Component
+public class FreelanceSummaryBulkAssembler {
+
+    private final UtilisateurRepository utilisateurRepository;
+
+    public FreelanceSummaryBulkAssembler(UtilisateurRepository utilisateurRepository) {
+        this.utilisateurRepository = utilisateurRepository;
+    }
+
+    /** Charge les profils puis assemble les DTO dans l'ordre des ids fournis (ids inconnus ignorés). */
+    @Transactional(readOnly = true)
+    public List<FreelanceSummaryDTO> toSummariesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        Map<Long, Utilisateur> byId = new HashMap<>();
+        for (Utilisateur u : utilisateurRepository.findAllById(ids)) byId.put(u.getId(), u);
+        return toSummaries(ids.stream().map(byId::get).filter(Objects::nonNull).toList());
+    }
+
+    /** Assemble les DTO pour des entités déjà chargées, sans toucher à leurs collections lazy. */
+    @Transactional(readOnly = true)
+    public List<FreelanceSummaryDTO> toSummaries(List<Utilisateur> users) {
+        if (users == null || users.isEmpty()) return List.of();
+
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Utilisateur u : users) ids.add(u.getId());
+
+        Map<Long, Set<String>> competences = groupSet(utilisateurRepository.findCompetencesByUserIds(ids));
+        Map<Long, List<String>> portfolio  = groupList(utilisateurRepository.findPortfolioUrlsByUserIds(ids),
+                                                       UserValueRow::getUserId, UserValueRow::getValeur);
+        Map<Long, Set<String>> badges      = groupSet(utilisateurRepository.findBadgesByUserIds(ids));
+        Map<Long, List<String>> certifs    = groupList(utilisateurRepository.findCertificationsByUserIds(ids),
+                                                       UserValueRow::getUserId, UserValueRow::getValeur);
+        Map<Long, List<EngagementModel>> modeles = groupList(utilisateurRepository.findEngagementModelsByUserIds(ids),
+                                                       r -> r.getUserId(), r -> r.getModele());
+
+        Map<Long, Map<Langue, NiveauLangue>> langues = new HashMap<>();
+        for (var r : utilisateurRepository.findLanguesByUserIds(ids)) {
+            langues.computeIfAbsent(r.getUserId(), k -> new EnumMap<>(Langue.class)).put(r.getLangue(), r.getNiveau());
+        }
+        Map<Long, Map<String, NiveauMaitrise>> niveaux = new HashMap<>();
+        for (var r : utilisateurRepository.findCompetencesNiveauxByUserIds(ids)) {
+            niveaux.computeIfAbsent(r.getUserId(), k -> new HashMap<>()).put(r.getCompetence(), r.getNiveau());
+        }
+
+        List<FreelanceSummaryDTO> out = new ArrayList<>(users.size());
+        for (Utilisateur u : users) {
+            Long id = u.getId();
+            out.add(FreelanceSummaryAssembler.toSummary(u, new ProfileCollections(
+                    competences.getOrDefault(id, new LinkedHashSet<>()),
+                    portfolio.getOrDefault(id, new ArrayList<>()),
+                    badges.getOrDefault(id, new LinkedHashSet<>()),
+                    certifs.getOrDefault(id, new ArrayList<>()),
+                    modeles.getOrDefault(id, new ArrayList<>()),
+                    langues.getOrDefault(id, new EnumMap<>(Langue.class)),
+                    niveaux.getOrDefault(id, new HashMap<>()))));
+        }
+        return out;
+    }
+
+    /** Variante indexée par id (cartes mission : un freelance par carte). */
+    @Transactional(readOnly = true)
+    public Map<Long, FreelanceSummaryDTO> toSummariesById(Collection<Utilisateur> users) {
+        Map<Long, Utilisateur> distinct = new LinkedHashMap<>();
+        for (Utilisateur u : users) distinct.putIfAbsent(u.getId(), u);
+        Map<Long, FreelanceSummaryDTO> out = new HashMap<>();
+        for (FreelanceSummaryDTO dto : toSummaries(new ArrayList<>(distinct.values()))) out.put(dto.getId(), dto);
+        return out;
+    }
+
+    /* ===================== Helpers ===================== */
+
+    private static Map<Long, Set<String>> groupSet(List<UserValueRow> rows) {
+        Map<Long, Set<String>> out = new HashMap<>();
+        for (UserValueRow r : rows) {
+            out.computeIfAbsent(r.getUserId(), k -> new LinkedHashSet<>()).add(r.getValeur());
+        }
+        return out;
+    }
+
+    private static <R, V> Map<Long, List<V>> groupList(List<R> rows, Function<R, Long> key, Function<R, V> value) {
+        Map<Long, List<V>> out = new HashMap<>();
+        for (R r : rows) {
+            out.computeIfAbsent(key.apply(r), k -> new ArrayList<>()).add(value.apply(r));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,12 @@
+package com.projet.freelencetinder.servcie;
+
+/**
+ * Événements internes du moteur de matching (index en mémoire, deck temps réel…).
+ * Publiés dans la transaction métier, consommés après commit.
+ */
+public class MatchingEvents {
+    /** Une mission a été créée / modifiée / verrouillée / affectée / supprimée. */
+    public record MissionChangedEvent(Long missionId) {}
+    /** Profil freelance créé / modifié (compétences, catégories, note, activation) ou supprimé. */
+    public record FreelanceProfileChangedEvent(Long userId) {}
+}
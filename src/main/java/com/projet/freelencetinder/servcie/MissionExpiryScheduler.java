@@ -0,0 +1,67 @@
+package com.projet.freelencetinder.servcie;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.projet.freelencetinder.servcie.MatchingEvents.MissionChangedEvent;
+
+/**
+ * Expiration des missions en un seul UPDATE ensembliste (même règle que
+ * MissionService.expireIfDeadlinePassed : EN_ATTENTE et date limite dépassée).
+ *
+ * - passe juste après minuit (la date limite est un jour), puis toutes les 5 min en filet ;
+ *   "aujourd'hui" vient de la Clock injectée, comme le feed et les contrôles de swipe
+ *   (cron sans zone = zone par défaut, celle de TimeConfig) ;
+ * - prédicat sur date_limite_candidature : parcours de idx_mission_limite ;
+ * - RETURNING id : un MissionChangedEvent par mission expirée (index en mémoire,
+ *   decks STOMP ouverts...).
+ * Le feed garde un prédicat de date en plus du statut : rien n'est servi entre minuit et
+ * le passage suivant.
+ */
+@Component
+public class MissionExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(MissionExpiryScheduler.class);
+
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher publisher;
+    private final Clock clock;
+
+    public MissionExpiryScheduler(JdbcTemplate jdbc, ApplicationEventPublisher publisher, Clock clock) {
+        this.jdbc = jdbc;
+        this.publisher = publisher;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        expireOverdue();
+    }
+
+    @Scheduled(cron = "30 0/5 * * * *")
+    public void expireOverdue() {
+        LocalDate today = LocalDate.now(clock);
+        List<Long> ids = jdbc.queryForList("""
+                update mission
+                   set statut = 'EXPIREE', verrouillee = true, version = version + 1
+                 where statut = 'EN_ATTENTE'
+                   and date_limite_candidature < ?
+                returning id
+                """, Long.class, Date.valueOf(today));
+
+        if (ids.isEmpty()) return;
+        log.info("[MissionExpiry] {} missions expirées (date limite < {})", ids.size(), today);
+        ids.forEach(id -> publisher.publishEvent(new MissionChangedEvent(id)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.projet.freelencetinder.servcie;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import com.projet.freelencetinder.catalog.CanonicalSkills;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.servcie.MissionSkillIndex.IndexedMission;
+
+/**
+ * Score mission -> freelance (recommandations).
+ *
+ * Appelé pour chaque candidat de l'index : aucune allocation (pas de now(), pas de
+ * ChronoUnit.between sur LocalDateTime, pas de BigDecimal.doubleValue), les dates viennent
+ * du TimeSnapshot de l'appel et le tarif est converti une fois par appel (tarif(...)).
+ * Barème inchangé :
+ * - compétences communes x4 ;
+ * - catégorie déjà likée +5 ;
+ * - budget >= tarif horaire (ou tarif non renseigné) +2 ;
+ * - fraîcheur : 21 - âge en jours (plancher 0) ;
+ * - date limite dans les 7 jours +2.
+ */
+public final class MissionScoring {
+
+    private MissionScoring() {
+    }
+
+    /** Tarif horaire du freelance au format des budgets ; null = non renseigné. */
+    public static BigDecimal tarif(Double tarifHoraire) {
+        return tarifHoraire == null ? null : BigDecimal.valueOf(tarifHoraire);
+    }
+
+    public static int score(IndexedMission m,
+                            BigDecimal tarifHoraire,
+                            CanonicalSkills competencesFreelance,
+                            Set<Mission.Categorie> categoriesPref,
+                            TimeSnapshot t) {
+        int score = 0;
+        // compétences communes sur les ids canoniques (alias / casse / accents neutralisés)
+        score += m.competencesCanoniques().intersectionCount(competencesFreelance) * 4;
+        if (categoriesPref.contains(m.categorie())) score += 5;
+        if (tarifHoraire == null
+                || (m.budget() != null && m.budget().compareTo(tarifHoraire) >= 0)) {
+            score += 2;
+        }
+        if (m.datePublication() != null) {
+            score += (int) Math.max(0, 21 - t.daysSince(m.datePublication()));
+        }
+        if (m.dateLimiteCandidature() != null) {
+            long toDeadline = t.daysUntil(m.dateLimiteCandidature());
+            if (toDeadline <= 7 && toDeadline >= 0) score += 2;
+        }
+        return score;
+    }
+}
@@ -1,6 +1,7 @@
 package com.projet.freelencetinder.servcie;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -8,6 +9,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -23,6 +25,7 @@ import com.projet.freelencetinder.repository.LivrableRepository;
 import com.projet.freelencetinder.repository.MissionRepository;
 import com.projet.freelencetinder.repository.TranchePaiementRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.MatchingEvents.MissionChangedEvent;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -40,6 +43,9 @@ public class MissionService {
     private final LivrableRepository livrableRepository;
     private final TranchePaiementRepository trancheRepository;
     private final EscrowService escrowService;
+    private final ApplicationEventPublisher publisher;
+    private final FreelanceSummaryBulkAssembler summaryAssembler;
+    private final Clock clock;
 
     @Autowired
     public MissionService(MissionRepository missionRepository,
@@ -47,13 +53,19 @@ public class MissionService {
                           com.projet.freelencetinder.servcie.CompetenceService competenceService,
                           LivrableRepository livrableRepository,
                           TranchePaiementRepository trancheRepository,
-                          EscrowService escrowService) {
+                          EscrowService escrowService,
+                          ApplicationEventPublisher publisher,
+                          FreelanceSummaryBulkAssembler summaryAssembler,
+                          Clock clock) {
         this.missionRepository     = missionRepository;
         this.utilisateurRepository = utilisateurRepository;
         this.competenceService     = competenceService;
         this.livrableRepository    = livrableRepository;
         this.trancheRepository     = trancheRepository;
         this.escrowService         = escrowService;
+        this.publisher             = publisher;
+        this.summaryAssembler      = summaryAssembler;
+        this.clock                 = clock;
     }
 
     /* ------------------------------------------------------------------
@@ -89,8 +101,11 @@ public class MissionService {
 
         // AJOUT : validation centralisée
         validateMission(mission, true);
+        competenceService.syncSkillVector(mission);
 
-        return missionRepository.save(mission);
+        Mission saved = missionRepository.save(mission);
+        publisher.publishEvent(new MissionChangedEvent(saved.getId()));
+        return saved;
     }
 
     /* ------------------------------------------------------------------
@@ -155,8 +170,11 @@ public class MissionService {
 
         // AJOUT : validation et garde-fous de cohérence
         validateMission(existing, false);
+        competenceService.syncSkillVector(existing);
 
-        return missionRepository.save(existing);
+        Mission saved = missionRepository.save(existing);
+        publisher.publishEvent(new MissionChangedEvent(saved.getId()));
+        return saved;
     }
 
     /* ------------------------------------------------------------------
@@ -169,6 +187,7 @@ public class MissionService {
             throw new IllegalStateException("Impossible de supprimer une mission déjà engagée");
         }
         missionRepository.delete(m);
+        publisher.publishEvent(new MissionChangedEvent(id));
     }
 
     /* ------------------------------------------------------------------
@@ -201,6 +220,13 @@ public class MissionService {
         java.util.Map<Long, Long> trancheDueByMission = new java.util.HashMap<>();
         for (var td : trancheDueList) trancheDueByMission.put(td.getMissionId(), td.getTrancheIdDue());
 
+        // Cartes freelances assemblées en lot (collections chargées par IN, pas de N+1)
+        java.util.Map<Long, FreelanceSummaryDTO> freelanceCards = summaryAssembler.toSummariesById(
+                missions.stream()
+                        .map(Mission::getFreelanceSelectionne)
+                        .filter(java.util.Objects::nonNull)
+                        .toList());
+
         return missions.stream().map(m -> {
             MissionCardDto d = new MissionCardDto();
             // Mapping infos de base
@@ -229,7 +255,7 @@ public class MissionService {
             d.setDerniereActiviteAt(m.getDerniereActiviteAt());
             d.setDelaiLivraison(m.getDelaiLivraison());
             if (m.getClient() != null) d.setClient(toClientInfoDTO(m.getClient()));
-            if (m.getFreelanceSelectionne() != null) d.setFreelance(toFreelanceSummary(m.getFreelanceSelectionne()));
+            if (m.getFreelanceSelectionne() != null) d.setFreelance(freelanceCards.get(m.getFreelanceSelectionne().getId()));
 
             // Clôture / policy
             d.setClosurePolicy(m.getClosurePolicy());
@@ -297,28 +323,6 @@ public class MissionService {
         return c;
     }
 
-    private FreelanceSummaryDTO toFreelanceSummary(Utilisateur u) {
-        FreelanceSummaryDTO f = new FreelanceSummaryDTO();
-        f.setId(u.getId());
-        f.setNom(u.getNom());
-        f.setPrenom(u.getPrenom());
-        f.setPhotoUrl(u.getPhotoProfilUrl());
-        f.setLocalisation(u.getLocalisation());
-        if (u.getTitreProfil() != null) f.setTitreProfil(u.getTitreProfil());
-        if (u.getNiveauExperience() != null) f.setNiveauExperience(u.getNiveauExperience().name());
-        if (u.getDisponibilite() != null) f.setDisponibilite(u.getDisponibilite().name());
-        f.setTarifHoraire(u.getTarifHoraire());
-        f.setTarifJournalier(u.getTarifJournalier());
-        f.setNoteMoyenne(u.getNoteMoyenne());
-        f.setNombreAvis(u.getNombreAvis());
-        f.setTimezone(u.getTimezone());
-        f.setMobilite(u.getMobilite());
-        f.setLinkedinUrl(u.getLinkedinUrl());
-        f.setGithubUrl(u.getGithubUrl());
-        f.setPreferenceDuree(u.getPreferenceDuree());
-        return f;
-    }
-
     /* ------------------------------------------------------------------
        10. Missions d’un freelance sélectionné
        ------------------------------------------------------------------ */
@@ -478,7 +482,7 @@ public class MissionService {
         dto.setUrgent(m.isUrgent());
         dto.setQualiteBrief(m.getQualiteBrief());
         dto.setDerniereActiviteAt(m.getDerniereActiviteAt());
-        dto.setExpired(m.estExpirée());
+        dto.setExpired(m.estExpirée(LocalDate.now(clock)));
 
         // Stats & badges
         dto.setCandidatsCount(m.getCandidatsCount());
@@ -576,7 +580,9 @@ public class MissionService {
         mission.setStatut(Statut.EN_COURS);
         mission.setVerrouillee(true); // AJOUT : verrouiller dès l’assignation
 
-        return missionRepository.save(mission);
+        Mission saved = missionRepository.save(mission);
+        publisher.publishEvent(new MissionChangedEvent(saved.getId()));
+        return saved;
     }
 
     /* ======================================================================
@@ -588,6 +594,7 @@ public class MissionService {
     public Mission lockMission(Long missionId) {
         Mission m = getMissionById(missionId);
         m.setVerrouillee(true);
+        publisher.publishEvent(new MissionChangedEvent(missionId));
         return missionRepository.save(m);
     }
 
@@ -599,6 +606,7 @@ public class MissionService {
             throw new IllegalStateException("Déverrouillage interdit si la mission n’est pas EN_ATTENTE");
         }
         m.setVerrouillee(false);
+        publisher.publishEvent(new MissionChangedEvent(missionId));
         return missionRepository.save(m);
     }
 
@@ -606,9 +614,10 @@ public class MissionService {
     @Transactional
     public Mission expireIfDeadlinePassed(Long missionId) {
         Mission m = getMissionById(missionId);
-        if (m.estExpirée() && (m.getStatut() == Statut.EN_ATTENTE)) {
+        if (m.estExpirée(LocalDate.now(clock)) && (m.getStatut() == Statut.EN_ATTENTE)) {
             m.setStatut(Statut.EXPIREE);
             m.setVerrouillee(true);
+            publisher.publishEvent(new MissionChangedEvent(missionId));
             return missionRepository.save(m);
         }
         return m;
@@ -631,6 +640,8 @@ public class MissionService {
         Mission m = getMissionById(missionId);
         if (StringUtils.hasText(skill)) {
             m.getCompetencesRequises().add(skill.trim());
+            competenceService.syncSkillVector(m);
+            publisher.publishEvent(new MissionChangedEvent(missionId));
             return missionRepository.save(m);
         }
         return m;
@@ -642,6 +653,8 @@ public class MissionService {
         Mission m = getMissionById(missionId);
         if (StringUtils.hasText(skill)) {
             m.getCompetencesRequises().remove(skill.trim());
+            competenceService.syncSkillVector(m);
+            publisher.publishEvent(new MissionChangedEvent(missionId));
             return missionRepository.save(m);
         }
         return m;
@@ -697,13 +710,15 @@ public class MissionService {
         if (m.getCategorie() == null)
             throw new IllegalArgumentException("Catégorie requise.");
 
+        LocalDate today = LocalDate.now(clock);
+
         // Deadline cohérente : pas avant aujourd’hui
-        if (m.getDateLimiteCandidature() != null && m.getDateLimiteCandidature().isBefore(LocalDate.now())) {
+        if (m.getDateLimiteCandidature() != null && m.getDateLimiteCandidature().isBefore(today)) {
             throw new IllegalArgumentException("La date limite de candidature ne peut pas être dans le passé.");
         }
 
         // Délai de livraison cohérent : s’il existe, pas avant demain
-        if (m.getDelaiLivraison() != null && !m.getDelaiLivraison().isAfter(LocalDate.now())) {
+        if (m.getDelaiLivraison() != null && !m.getDelaiLivraison().isAfter(today)) {
             throw new IllegalArgumentException("Le délai de livraison doit être ultérieur à aujourd’hui.");
         }
 
@@ -0,0 +1,204 @@
+package com.projet.freelencetinder.servcie;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projet.freelencetinder.catalog.CanonicalSkills;
+import com.projet.freelencetinder.config.StompBrokerProperties;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Mission.Categorie;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.servcie.MatchingEvents.MissionChangedEvent;
+
+/**
+ * Index inversé en mémoire : compétence canonique -> missions ouvertes.
+ *
+ * - ne contient que les missions EN_ATTENTE et non verrouillées ;
+ * - construit au démarrage, puis tenu à jour via MissionChangedEvent (après commit) ;
+ * - les missions sans compétence requise sont candidates pour tout le monde
+ *   (même règle que l'ancien hasSkillOverlap).
+ * La deadline n'est pas indexée : elle est vérifiée au moment de la lecture.
+ * Tant que l'index n'est pas construit, les candidats viennent de PostgreSQL
+ * (vecteur competence_ids, opérateur && sur index GIN). Avec plusieurs instances
+ * (stomp.broker.mode=RELAY), une mission modifiée sur un autre nœud n'arrive pas ici :
+ * l'index n'est jamais construit et ce repli sert toutes les lectures.
+ */
+@Component
+public class MissionSkillIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MissionSkillIndex.class);
+
+    /** Snapshot immuable des champs utiles au scoring (pas d'entité JPA en mémoire). */
+    public record IndexedMission(Long id,
+                                 Long clientId,
+                                 Categorie categorie,
+                                 BigDecimal budget,
+                                 LocalDateTime datePublication,
+                                 LocalDate dateLimiteCandidature,
+                                 Set<String> competencesRequises,
+                                 CanonicalSkills competencesCanoniques) {}
+
+    private final MissionRepository missionRepository;
+    private final CompetenceService competenceService;
+
+    private final Map<Long, IndexedMission> missions = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> missionsParCompetence = new ConcurrentHashMap<>();
+    private final Set<Long> missionsSansCompetence = ConcurrentHashMap.newKeySet();
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    public MissionSkillIndex(MissionRepository missionRepository,
+                             CompetenceService competenceService,
+                             StompBrokerProperties brokerProps) {
+        this.missionRepository = missionRepository;
+        this.competenceService = competenceService;
+        this.enabled = !brokerProps.isRelay(); // état par JVM : valable sur une seule instance
+    }
+
+    /* ===================== Construction / mises à jour ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            log.info("[MissionSkillIndex] désactivé (plusieurs instances) : candidats lus en base");
+            return;
+        }
+        missions.clear();
+        missionsParCompetence.clear();
+        missionsSansCompetence.clear();
+        for (Mission m : missionRepository.findOpenForIndex()) {
+            put(m);
+        }
+        ready = true;
+        log.info("[MissionSkillIndex] {} missions ouvertes indexées ({} compétences)",
+                missions.size(), missionsParCompetence.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMissionChanged(MissionChangedEvent event) {
+        if (!enabled) return;
+        refresh(event.missionId());
+    }
+
+    /** Recharge une mission depuis la base et met l'index à jour (ou la retire). */
+    public synchronized void refresh(Long missionId) {
+        if (missionId == null) return;
+        remove(missionId);
+        missionRepository.findForIndexById(missionId)
+                .filter(m -> m.getStatut() == Mission.Statut.EN_ATTENTE && !m.isVerrouillee())
+                .ifPresent(this::put);
+    }
+
+    private void put(Mission m) {
+        IndexedMission im = snapshot(m);
+        CanonicalSkills canon = im.competencesCanoniques();
+
+        missions.put(im.id(), im);
+        if (canon.isEmpty()) {
+            missionsSansCompetence.add(im.id());
+        } else {
+            for (String c : canon.names()) {
+                missionsParCompetence.computeIfAbsent(c, k -> ConcurrentHashMap.newKeySet()).add(im.id());
+            }
+        }
+    }
+
+    private IndexedMission snapshot(Mission m) {
+        Set<String> raw = m.getCompetencesRequises() == null
+                ? Set.of()
+                : Set.copyOf(m.getCompetencesRequises());
+        return new IndexedMission(
+                m.getId(),
+                m.getClient() != null ? m.getClient().getId() : null,
+                m.getCategorie(),
+                m.getBudget(),
+                m.getDatePublication(),
+                m.getDateLimiteCandidature(),
+                raw,
+                competenceService.canonicalize(raw));
+    }
+
+    private void remove(Long missionId) {
+        IndexedMission old = missions.remove(missionId);
+        if (old == null) return;
+        missionsSansCompetence.remove(missionId);
+        for (String c : old.competencesCanoniques().names()) {
+            Set<Long> ids = missionsParCompetence.get(c);
+            if (ids != null) {
+                ids.remove(missionId);
+                if (ids.isEmpty()) missionsParCompetence.remove(c, ids);
+            }
+        }
+    }
+
+    /* ===================== Lecture ===================== */
+
+    /**
+     * Missions ouvertes partageant au moins une compétence canonique avec {@code competencesCanoniques},
+     * plus les missions sans compétence requise.
+     */
+    public Collection<IndexedMission> candidates(CanonicalSkills competencesCanoniques) {
+        if (!ready) return candidatesFromDatabase(competencesCanoniques);
+        Set<Long> ids = new LinkedHashSet<>(missionsSansCompetence);
+        if (competencesCanoniques != null) {
+            for (String c : competencesCanoniques.names()) {
+                ids.addAll(missionsParCompetence.getOrDefault(c, Collections.emptySet()));
+            }
+        }
+        List<IndexedMission> out = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            IndexedMission im = missions.get(id);
+            if (im != null) out.add(im);
+        }
+        return out;
+    }
+
+    /** Repli SQL (démarrage) : filtrage sur le vecteur persisté, compétences inconnues vérifiées ici. */
+    private Collection<IndexedMission> candidatesFromDatabase(CanonicalSkills competencesCanoniques) {
+        CanonicalSkills skills = competencesCanoniques != null ? competencesCanoniques : CanonicalSkills.EMPTY;
+        StringBuilder literal = new StringBuilder("{");
+        for (int id : skills.ids()) {
+            if (literal.length() > 1) literal.append(',');
+            literal.append(id);
+        }
+        literal.append('}');
+
+        List<Long> ids = missionRepository.findOpenIdsBySkillOverlap(literal.toString());
+        if (ids.isEmpty()) return List.of();
+        List<IndexedMission> out = new ArrayList<>(ids.size());
+        for (Mission m : missionRepository.findForIndexByIds(ids)) {
+            IndexedMission im = snapshot(m);
+            if (im.competencesCanoniques().isEmpty() || im.competencesCanoniques().intersects(skills)) out.add(im);
+        }
+        return out;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public IndexedMission get(Long missionId) {
+        return missions.get(missionId);
+    }
+
+    public int size() {
+        return missions.size();
+    }
+}
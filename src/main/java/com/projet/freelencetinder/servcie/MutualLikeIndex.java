@@ -0,0 +1,169 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.projet.freelencetinder.config.StompBrokerProperties;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Swipe;
+import com.projet.freelencetinder.repository.ClientSwipeRepository;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.SwipeRepository;
+import com.projet.freelencetinder.repository.SwipeRepository.MissionLikeRow;
+import com.projet.freelencetinder.servcie.MatchingEvents.MissionChangedEvent;
+
+/**
+ * LIKE en attente par mission ouverte, des deux côtés : mission -> {freelances likés par
+ * le client} et {freelances ayant liké la mission}. La détection de match devient une
+ * lecture mémoire au lieu d'une requête sur swipe / client_swipe.
+ *
+ * - chargé au démarrage (missions EN_ATTENTE non verrouillées), tant que ready = false
+ *   l'appelant interroge la base ;
+ * - un LIKE est ajouté dès l'insertion (dans la transaction) puis retiré si rollback :
+ *   "j'ajoute mon côté, puis je lis l'autre" garantit qu'au moins un des deux LIKE
+ *   concurrents voit l'autre (le claim conditionnel départage ensuite) ;
+ * - MissionChangedEvent : mission fermée -> entrée supprimée ; mission (ré)ouverte -> fusion
+ *   des LIKE en base (jamais de remplacement, pour ne pas perdre un LIKE en vol) ;
+ * - plusieurs instances (stomp.broker.mode=RELAY) : les LIKE reçus par un autre nœud
+ *   n'arrivent jamais ici, l'index est désactivé et chaque sonde passe par la base.
+ */
+@Component
+public class MutualLikeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MutualLikeIndex.class);
+
+    private static final class MissionLikes {
+        final Set<Long> likesFreelances = ConcurrentHashMap.newKeySet();
+        final Set<Long> likesClient = ConcurrentHashMap.newKeySet();
+    }
+
+    private final SwipeRepository swipeRepository;
+    private final ClientSwipeRepository clientSwipeRepository;
+    private final MissionRepository missionRepository;
+
+    private final Map<Long, MissionLikes> missions = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    public MutualLikeIndex(SwipeRepository swipeRepository,
+                           ClientSwipeRepository clientSwipeRepository,
+                           MissionRepository missionRepository,
+                           StompBrokerProperties brokerProps) {
+        this.swipeRepository = swipeRepository;
+        this.clientSwipeRepository = clientSwipeRepository;
+        this.missionRepository = missionRepository;
+        this.enabled = !brokerProps.isRelay(); // état par JVM : valable sur une seule instance
+    }
+
+    /* ===================== Construction / mises à jour ===================== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            log.info("[MutualLikeIndex] désactivé (plusieurs instances) : détection de match en base");
+            return;
+        }
+        merge(null);
+        ready = true;
+        log.info("[MutualLikeIndex] {} missions ouvertes avec LIKE en attente", missions.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMissionChanged(MissionChangedEvent event) {
+        if (!enabled) return;
+        Long id = event.missionId();
+        Mission m = missionRepository.findById(id).orElse(null);
+        if (m == null || m.getStatut() != Mission.Statut.EN_ATTENTE || m.isVerrouillee()) {
+            missions.remove(id); // plus de match possible : le claim échouerait de toute façon
+        } else {
+            merge(id);
+        }
+    }
+
+    private void merge(Long missionId) {
+        List<MissionLikeRow> freelances = swipeRepository.findOpenMissionLikes(missionId, Swipe.Decision.LIKE);
+        List<MissionLikeRow> client = clientSwipeRepository.findOpenMissionLikes(missionId, Swipe.Decision.LIKE);
+        freelances.forEach(r -> likesOf(r.getMissionId()).likesFreelances.add(r.getFreelanceId()));
+        client.forEach(r -> likesOf(r.getMissionId()).likesClient.add(r.getFreelanceId()));
+    }
+
+    /* ===================== Sonde de match ===================== */
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Enregistre le LIKE du freelance ; true si le client a déjà liké ce freelance sur la mission. */
+    public boolean freelanceLiked(Long missionId, Long freelanceId) {
+        if (!enabled) return false; // ready = false : l'appelant lit la base
+        MissionLikes likes = likesOf(missionId);
+        add(likes.likesFreelances, freelanceId);
+        return likes.likesClient.contains(freelanceId);
+    }
+
+    /** Enregistre le LIKE du client ; true si le freelance a déjà liké la mission. */
+    public boolean clientLiked(Long missionId, Long freelanceId) {
+        if (!enabled) return false;
+        MissionLikes likes = likesOf(missionId);
+        add(likes.likesClient, freelanceId);
+        return likes.likesFreelances.contains(freelanceId);
+    }
+
+    /** Après commit : un DELETE annulé ne doit pas faire disparaître le LIKE. */
+    public void freelanceLikeRemoved(Long missionId, Long freelanceId) {
+        afterCommit(() -> {
+            MissionLikes likes = missions.get(missionId);
+            if (likes != null) likes.likesFreelances.remove(freelanceId);
+        });
+    }
+
+    public void clientLikeRemoved(Long missionId, Long freelanceId) {
+        afterCommit(() -> {
+            MissionLikes likes = missions.get(missionId);
+            if (likes != null) likes.likesClient.remove(freelanceId);
+        });
+    }
+
+    /* ===================== Internes ===================== */
+
+    private MissionLikes likesOf(Long missionId) {
+        return missions.computeIfAbsent(missionId, k -> new MissionLikes());
+    }
+
+    private static void add(Set<Long> side, Long freelanceId) {
+        if (!side.add(freelanceId)) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) side.remove(freelanceId);
+                }
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
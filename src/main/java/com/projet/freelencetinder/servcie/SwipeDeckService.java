@@ -0,0 +1,237 @@
+package com.projet.freelencetinder.servcie;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import com.projet.freelencetinder.config.StompBrokerProperties;
+import com.projet.freelencetinder.dto.DeckMessage;
+import com.projet.freelencetinder.dto.DeckRequest;
+import com.projet.freelencetinder.dto.MissionSummaryDTO;
+import com.projet.freelencetinder.dto.SwipeFeedPageDTO;
+import com.projet.freelencetinder.models.Mission.Categorie;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.MatchingEvents.MissionChangedEvent;
+
+/**
+ * Deck swipe poussé par STOMP (remplace le polling de /api/swipes/available).
+ *
+ * - une session STOMP = un deck : catégorie + cursor keyset du feed (getSwipeFeed) ;
+ * - le client signale sur /app/deck/request combien de cartes il lui reste ; sous le seuil,
+ *   le serveur pousse la page suivante sur /user/queue/deck (cette session uniquement) ;
+ * - cartes livrées suivies par session (bornées) + index inverse mission -> sessions :
+ *   une mission qui n'est plus swipable (verrouillée, attribuée, expirée, supprimée)
+ *   est retirée des decks ouverts dès le commit (RETRACT) ;
+ * - plusieurs instances (stomp.broker.mode=RELAY) : les MissionChangedEvent des autres nœuds
+ *   n'arrivent pas ici ; les missions suivies sont en plus revérifiées en base périodiquement ;
+ * - état libéré à la déconnexion.
+ */
+@Service
+public class SwipeDeckService {
+
+    private static final int DECK_THRESHOLD = 5;   // en dessous : on pousse la suite
+    private static final int DECK_BATCH = 20;
+    private static final int MAX_TRACKED = 200;    // cartes suivies par session (retraits)
+    private static final int RECHECK_CHUNK = 500;  // ids par requête de revérification
+
+    private static final class DeckSession {
+        final String principal;
+        final Long freelanceId;
+        Categorie categorie;
+        Long cursor;
+        boolean exhausted;
+        final Set<Long> delivered = new LinkedHashSet<>(); // ordre de livraison
+
+        DeckSession(String principal, Long freelanceId) {
+            this.principal = principal;
+            this.freelanceId = freelanceId;
+        }
+    }
+
+    private final SwipeService swipeService;
+    private final MissionRepository missionRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final SimpMessagingTemplate broker;
+    private final Clock clock;
+    private final boolean relay;
+
+    private final Map<String, DeckSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> sessionsParMission = new ConcurrentHashMap<>();
+
+    public SwipeDeckService(SwipeService swipeService,
+                            MissionRepository missionRepository,
+                            UtilisateurRepository utilisateurRepository,
+                            SimpMessagingTemplate broker,
+                            Clock clock,
+                            StompBrokerProperties brokerProps) {
+        this.swipeService = swipeService;
+        this.missionRepository = missionRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.broker = broker;
+        this.clock = clock;
+        this.relay = brokerProps.isRelay();
+    }
+
+    /* ===================== Demandes du client ===================== */
+
+    public void onDeckRequest(String sessionId, String principalName, DeckRequest req) {
+        DeckSession s = sessions.computeIfAbsent(sessionId,
+                id -> new DeckSession(principalName, resolveUserId(principalName)));
+
+        synchronized (s) {
+            boolean filtreChange = req.getCategorie() != s.categorie;
+            if (req.isReset() || filtreChange) {
+                untrackAll(sessionId, s);
+                s.categorie = req.getCategorie();
+                s.cursor = null;
+                s.exhausted = false;
+            }
+            int remaining = req.getRemaining() == null ? 0 : Math.max(0, req.getRemaining());
+            if (remaining >= DECK_THRESHOLD || s.exhausted) return;
+
+            SwipeFeedPageDTO page = swipeService.getSwipeFeed(s.freelanceId, s.categorie, s.cursor, DECK_BATCH);
+            s.cursor = page.getNextCursor();
+            s.exhausted = !page.isHasMore();
+            for (MissionSummaryDTO card : page.getItems()) track(sessionId, s, card.getId());
+            // revérification APRÈS le suivi : un changement committé avant est vu ici, un
+            // changement committé après trouve la carte suivie (onMissionChanged la retire)
+            List<MissionSummaryDTO> cards = stillSwipable(sessionId, s, page.getItems());
+
+            send(sessionId, s.principal, DeckMessage.cards(cards, page.isHasMore()));
+        }
+    }
+
+    /* ===================== Retraits temps réel ===================== */
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMissionChanged(MissionChangedEvent event) {
+        Long missionId = event.missionId();
+        Set<String> holders = sessionsParMission.get(missionId);
+        if (holders == null || holders.isEmpty()) return; // aucune lecture si la carte n'est dans aucun deck
+
+        boolean swipable = missionRepository.findById(missionId)
+                .map(m -> m.estDisponiblePourSwipe(LocalDate.now(clock)))
+                .orElse(false);
+        if (!swipable) retract(missionId);
+    }
+
+    /** Multi-instances : missions verrouillées / attribuées / expirées sur un autre nœud. */
+    @Scheduled(fixedDelayString = "${swipe.deck.relay-recheck-ms:15000}")
+    public void recheckTrackedMissions() {
+        if (!relay || sessionsParMission.isEmpty()) return;
+        List<Long> tracked = new ArrayList<>(sessionsParMission.keySet());
+        LocalDate today = LocalDate.now(clock);
+        for (int from = 0; from < tracked.size(); from += RECHECK_CHUNK) {
+            List<Long> chunk = tracked.subList(from, Math.min(from + RECHECK_CHUNK, tracked.size()));
+            Set<Long> swipables = new HashSet<>(missionRepository.findSwipableIds(chunk, today));
+            for (Long missionId : chunk) {
+                if (!swipables.contains(missionId)) retract(missionId);
+            }
+        }
+    }
+
+    private void retract(Long missionId) {
+        Set<String> holders = sessionsParMission.remove(missionId);
+        if (holders == null) return;
+        DeckMessage retract = DeckMessage.retract(List.of(missionId));
+        for (String sessionId : holders) {
+            DeckSession s = sessions.get(sessionId);
+            if (s == null) continue;
+            synchronized (s) {
+                s.delivered.remove(missionId);
+            }
+            send(sessionId, s.principal, retract);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        DeckSession s = sessions.remove(event.getSessionId());
+        if (s == null) return;
+        synchronized (s) {
+            untrackAll(event.getSessionId(), s);
+        }
+    }
+
+    /* ===================== Internes ===================== */
+
+    private List<MissionSummaryDTO> stillSwipable(String sessionId, DeckSession s, List<MissionSummaryDTO> cards) {
+        if (cards.isEmpty()) return cards;
+        List<Long> ids = new ArrayList<>(cards.size());
+        for (MissionSummaryDTO card : cards) ids.add(card.getId());
+        Set<Long> swipables = new HashSet<>(missionRepository.findSwipableIds(ids, LocalDate.now(clock)));
+        if (swipables.size() == ids.size()) return cards;
+
+        List<MissionSummaryDTO> out = new ArrayList<>(swipables.size());
+        for (MissionSummaryDTO card : cards) {
+            if (swipables.contains(card.getId())) {
+                out.add(card);
+            } else {
+                s.delivered.remove(card.getId());
+                untrack(sessionId, card.getId());
+            }
+        }
+        return out;
+    }
+
+    private void track(String sessionId, DeckSession s, Long missionId) {
+        if (!s.delivered.add(missionId)) return;
+        sessionsParMission.computeIfAbsent(missionId, k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        if (s.delivered.size() > MAX_TRACKED) {
+            Iterator<Long> it = s.delivered.iterator();
+            untrack(sessionId, it.next());
+            it.remove();
+        }
+    }
+
+    private void untrackAll(String sessionId, DeckSession s) {
+        for (Long missionId : s.delivered) untrack(sessionId, missionId);
+        s.delivered.clear();
+    }
+
+    private void untrack(String sessionId, Long missionId) {
+        sessionsParMission.computeIfPresent(missionId, (k, set) -> {
+            set.remove(sessionId);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /** Envoi ciblé sur la session (un même utilisateur peut avoir plusieurs appareils). */
+    private void send(String sessionId, String principal, DeckMessage payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        MessageHeaders h = headers.getMessageHeaders();
+        broker.convertAndSendToUser(principal, "/queue/deck", payload, h);
+    }
+
+    /* même résolution que ChatWebSocketController : principal = id numérique ou email */
+    private Long resolveUserId(String principalName) {
+        try {
+            return Long.valueOf(principalName);
+        } catch (NumberFormatException e) {
+            return utilisateurRepository.findByEmail(principalName)
+                    .orElseThrow(() -> new IllegalStateException("Utilisateur WS introuvable: " + principalName))
+                    .getId();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.projet.freelencetinder.servcie;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.projet.freelencetinder.config.SwipeIngestionProperties;
+import com.projet.freelencetinder.models.Swipe;
+import com.projet.freelencetinder.models.Utilisateur;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * File d'ingestion des swipes sans effet de match (mode ASYNC, cf. SwipeIngestionProperties).
+ *
+ * - file bornée : offer() répond FULL quand elle est pleine, l'appelant repasse en synchrone ;
+ *   DUPLICATE si le même swipe attend déjà, l'appelant le rejette comme un doublon en base ;
+ * - écriture par lots : INSERT multi-valeurs en JDBC, ON CONFLICT DO NOTHING
+ *   (les contraintes uniques restent l'arbitre des doublons) ;
+ * - compteurs : transmis à SwipeStatsAccumulator, seulement pour les lignes
+ *   réellement insérées (RETURNING) ;
+ * - vidée une dernière fois à l'arrêt.
+ */
+@Component
+public class SwipeIngestionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(SwipeIngestionQueue.class);
+
+    /** Swipe en attente d'écriture ; clientId null = swipe freelance -> mission. */
+    public record PendingSwipe(Long clientId, Long freelanceId, Long missionId,
+                               Swipe.Decision decision, Long dwellTimeMs, LocalDateTime dateSwipe) {
+
+        boolean isClientSwipe() { return clientId != null; }
+
+        Key key() { return new Key(clientId, freelanceId, missionId); }
+    }
+
+    private record Key(Long clientId, Long freelanceId, Long missionId) {}
+
+    public enum Offer { ACCEPTED, FULL, DUPLICATE }
+
+    private static final String SWIPE_COLUMNS =
+            "version, freelance_id, mission_id, decision, date_swipe, dwell_time_ms, date_affichage,"
+          + " a_genere_match, super_like, est_undo, source, langue_ui";
+    private static final String CLIENT_SWIPE_COLUMNS =
+            "version, client_id, freelance_id, mission_id, decision, date_swipe, dwell_time_ms, date_affichage,"
+          + " a_genere_match, super_invite, est_undo, source, langue_ui";
+    /* mêmes valeurs par défaut que les @PrePersist de Swipe / ClientSwipe */
+    private static final String ROW_DEFAULTS = "false, false, false, '" + Swipe.Source.WEB + "', '" + Utilisateur.Langue.FR + "'";
+
+    private final JdbcTemplate jdbc;
+    private final SwipeIngestionProperties props;
+    private final SwipeStatsAccumulator stats;
+    private final BlockingQueue<PendingSwipe> queue;
+    private final Set<Key> pending = ConcurrentHashMap.newKeySet();
+
+    public SwipeIngestionQueue(JdbcTemplate jdbc, SwipeIngestionProperties props, SwipeStatsAccumulator stats) {
+        this.jdbc = jdbc;
+        this.props = props;
+        this.stats = stats;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, props.getQueueCapacity()));
+    }
+
+    /** @return DUPLICATE si ce swipe attend déjà d'être écrit, FULL si la file est pleine */
+    public Offer offer(PendingSwipe swipe) {
+        Key key = swipe.key();
+        if (!pending.add(key)) return Offer.DUPLICATE;
+        if (!queue.offer(swipe)) {
+            pending.remove(key);
+            return Offer.FULL;
+        }
+        return Offer.ACCEPTED;
+    }
+
+    /** Swipe accepté mais pas encore en base (contrôle de doublon, exclusion du feed et des recommandations). */
+    public boolean isPending(Long clientId, Long freelanceId, Long missionId) {
+        return pending.contains(new Key(clientId, freelanceId, missionId));
+    }
+
+    @Scheduled(fixedDelayString = "${swipe.ingestion.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (!queue.isEmpty()) flush();
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        flush();
+    }
+
+    public synchronized void flush() {
+        int batchSize = Math.max(1, props.getBatchSize());
+        List<PendingSwipe> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+            } finally {
+                batch.forEach(s -> pending.remove(s.key()));
+                batch.clear();
+            }
+        }
+    }
+
+    /* ===================== Écriture ===================== */
+
+    private void write(List<PendingSwipe> batch) {
+        List<PendingSwipe> freelance = new ArrayList<>();
+        List<PendingSwipe> client = new ArrayList<>();
+        for (PendingSwipe s : batch) (s.isClientSwipe() ? client : freelance).add(s);
+
+        List<PendingSwipe> inserted = new ArrayList<>(batch.size());
+        inserted.addAll(insertAll(freelance, false));
+        inserted.addAll(insertAll(client, true));
+        applyCounters(inserted);
+    }
+
+    /** Lot entier d'abord ; en cas d'échec (FK supprimée entre-temps...), ligne par ligne. */
+    private List<PendingSwipe> insertAll(List<PendingSwipe> rows, boolean clientSide) {
+        if (rows.isEmpty()) return List.of();
+        try {
+            return insert(rows, clientSide);
+        } catch (DataAccessException ex) {
+            log.warn("[SwipeIngestion] Lot de {} swipes rejeté, reprise ligne par ligne: {}", rows.size(), ex.getMessage());
+        }
+        List<PendingSwipe> out = new ArrayList<>();
+        for (PendingSwipe s : rows) {
+            try {
+                out.addAll(insert(List.of(s), clientSide));
+            } catch (DataAccessException ex) {
+                log.error("[SwipeIngestion] Swipe abandonné {}: {}", s, ex.getMessage());
+            }
+        }
+        return out;
+    }
+
+    private List<PendingSwipe> insert(List<PendingSwipe> rows, boolean clientSide) {
+        String table = clientSide ? "client_swipe" : "swipe";
+        String columns = clientSide ? CLIENT_SWIPE_COLUMNS : SWIPE_COLUMNS;
+        String values = clientSide ? "(0, ?, ?, ?, ?, ?, ?, ?, " + ROW_DEFAULTS + ")"
+                                   : "(0, ?, ?, ?, ?, ?, ?, " + ROW_DEFAULTS + ")";
+
+        StringJoiner sql = new StringJoiner(", ",
+                "insert into " + table + " (" + columns + ") values ",
+                " on conflict do nothing returning " + (clientSide ? "client_id" : "null") + ", freelance_id, mission_id");
+        List<Object> args = new ArrayList<>(rows.size() * 7);
+        for (PendingSwipe s : rows) {
+            sql.add(values);
+            Timestamp date = Timestamp.valueOf(s.dateSwipe());
+            if (clientSide) args.add(s.clientId());
+            Collections.addAll(args, s.freelanceId(), s.missionId(), s.decision().name(), date, s.dwellTimeMs(), date);
+        }
+
+        Map<Key, PendingSwipe> byKey = new HashMap<>();
+        rows.forEach(s -> byKey.put(s.key(), s));
+
+        List<PendingSwipe> inserted = new ArrayList<>(rows.size());
+        jdbc.query(sql.toString(), (RowCallbackHandler) rs -> {
+            Long c = clientSide ? rs.getLong(1) : null;
+            PendingSwipe s = byKey.get(new Key(c, rs.getLong(2), rs.getLong(3)));
+            if (s != null) inserted.add(s);
+        }, args.toArray());
+        return inserted;
+    }
+
+    /** Mêmes compteurs que le chemin synchrone (les LIKE ne passent pas par cette file). */
+    private void applyCounters(List<PendingSwipe> inserted) {
+        for (PendingSwipe s : inserted) {
+            if (s.isClientSwipe()) continue;
+            stats.missionSwiped(s.missionId(), false);
+            stats.userSwiped(s.freelanceId(), s.dateSwipe());
+        }
+    }
+}
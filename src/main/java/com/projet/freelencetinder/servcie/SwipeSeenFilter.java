@@ -0,0 +1,168 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.projet.freelencetinder.config.StompBrokerProperties;
+import com.projet.freelencetinder.repository.SwipeRepository;
+
+/**
+ * "Missions déjà vues" par freelance : un filtre de Bloom par freelance, en mémoire.
+ *
+ * - réponse négative = certainement jamais swipée (aucun aller-retour base) ;
+ * - réponse positive = peut-être swipée (~1 % de faux positifs) : à confirmer en base ;
+ * - reconstruit paresseusement depuis SwipeRepository (ids seulement), cache LRU borné ;
+ *   un swipe enregistré pendant la reconstruction est ajouté au filtre avant sa mise en cache ;
+ * - un filtre de Bloom ne supporte pas la suppression : invalidate() à chaque swipe retiré ;
+ * - la contrainte uk_swipe_freelance_mission reste l'arbitre final (course entre deux requêtes) ;
+ * - plusieurs instances (stomp.broker.mode=RELAY) : les swipes reçus par un autre nœud
+ *   n'arrivent pas ici (faux négatifs), le filtre est désactivé et répond toujours "à confirmer".
+ */
+@Component
+public class SwipeSeenFilter {
+
+    private static final int MIN_CAPACITY = 256;
+
+    private final SwipeRepository swipeRepository;
+    private final Map<Long, Bloom> filtres;
+    private final Map<Long, Chargement> enCours = new HashMap<>(); // gardé par filtres
+
+    private final boolean enabled;
+
+    public SwipeSeenFilter(SwipeRepository swipeRepository,
+                           StompBrokerProperties brokerProps,
+                           @Value("${swipe.seen-filter.max-freelances:10000}") int maxFreelances) {
+        this.swipeRepository = swipeRepository;
+        this.enabled = !brokerProps.isRelay(); // état par JVM : valable sur une seule instance
+        this.filtres = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Bloom> eldest) {
+                return size() > maxFreelances;
+            }
+        };
+    }
+
+    /** false = jamais swipée par ce freelance ; true = à confirmer en base. */
+    public boolean mightHaveSwiped(Long freelanceId, Long missionId) {
+        if (!enabled) return true;
+        return filterOf(freelanceId).mightContain(missionId);
+    }
+
+    /** Même réponse que mightHaveSwiped, cache consulté une seule fois pour toute une requête. */
+    public LongPredicate seenBy(Long freelanceId) {
+        if (!enabled) return missionId -> true;
+        return filterOf(freelanceId)::mightContain;
+    }
+
+    /** À appeler dès l'insertion : un rollback ne produit au pire qu'un faux positif. */
+    public void record(Long freelanceId, Long missionId) {
+        if (!enabled) return;
+        Bloom b;
+        synchronized (filtres) {
+            b = filtres.get(freelanceId);
+            if (b == null) {
+                // pas en cache : la prochaine reconstruction lira la base ; celle en cours
+                // a peut-être lu avant l'insertion, elle reprendra l'id à la publication
+                Chargement c = enCours.get(freelanceId);
+                if (c != null) c.enregistres.add(missionId);
+                return;
+            }
+        }
+        if (!b.add(missionId)) {
+            // capacité dépassée : taux de faux positifs dégradé, on reconstruit plus grand
+            invalidate(freelanceId);
+        }
+    }
+
+    public void invalidate(Long freelanceId) {
+        synchronized (filtres) {
+            filtres.remove(freelanceId);
+            Chargement c = enCours.get(freelanceId);
+            if (c != null) c.perime = true;
+        }
+    }
+
+    /* ===================== Internes ===================== */
+
+    private Bloom filterOf(Long freelanceId) {
+        Chargement c;
+        synchronized (filtres) {
+            Bloom b = filtres.get(freelanceId);
+            if (b != null) return b;
+            c = enCours.computeIfAbsent(freelanceId, k -> new Chargement());
+            c.lecteurs++;
+        }
+        // chargement hors verrou : record() / invalidate() concurrents passent par le Chargement
+        List<Long> ids = swipeRepository.findMissionIdsByFreelanceId(freelanceId);
+        Bloom b = new Bloom(Math.max(MIN_CAPACITY, ids.size() * 2));
+        for (Long id : ids) b.add(id);
+        synchronized (filtres) {
+            if (--c.lecteurs == 0) enCours.remove(freelanceId);
+            for (Long id : c.enregistres) b.add(id); // en trop au pire : faux positif
+            if (c.perime) return b;                   // invalidé pendant la lecture : pas de cache
+            Bloom existing = filtres.putIfAbsent(freelanceId, b);
+            return existing != null ? existing : b;
+        }
+    }
+
+    /** Reconstruction en cours pour un freelance (gardée par filtres). */
+    private static final class Chargement {
+        final List<Long> enregistres = new ArrayList<>();
+        boolean perime;
+        int lecteurs;
+    }
+
+    /**
+     * Filtre de Bloom à taille fixe, ~1 % de faux positifs jusqu'à {@code capacity} éléments
+     * (m = 9,6 bits/élément, k = 7, double hachage sur un mélange 64 bits de l'id).
+     */
+    static final class Bloom {
+        private static final int HASHES = 7;
+
+        private final long[] bits;
+        private final int nbBits;
+        private final int capacity;
+        private int count;
+
+        Bloom(int capacity) {
+            this.capacity = capacity;
+            this.nbBits = Math.max(64, (int) Math.ceil(capacity * 9.6));
+            this.bits = new long[(nbBits + 63) >>> 6];
+        }
+
+        /** @return false si la capacité prévue est dépassée */
+        synchronized boolean add(long value) {
+            long h = mix(value);
+            int h1 = (int) h, h2 = (int) (h >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, nbBits);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+            return ++count <= capacity;
+        }
+
+        synchronized boolean mightContain(long value) {
+            long h = mix(value);
+            int h1 = (int) h, h2 = (int) (h >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, nbBits);
+                if ((bits[bit >>> 6] & (1L << bit)) == 0L) return false;
+            }
+            return true;
+        }
+
+        /* finaliseur splitmix64 : des ids séquentiels donnent des bits bien répartis */
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -1,25 +1,38 @@
 package com.projet.freelencetinder.servcie; // ou com.projet.freelencetinder.service
 
+import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.Objects;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.projet.freelencetinder.catalog.CanonicalSkills;
+import com.projet.freelencetinder.config.SwipeIngestionProperties;
 import com.projet.freelencetinder.dto.ClientInfoDTO;
 import com.projet.freelencetinder.dto.FreelanceSummaryDTO;
 import com.projet.freelencetinder.dto.MissionRecommendationDTO;
 import com.projet.freelencetinder.dto.MissionSummaryDTO;
 import com.projet.freelencetinder.dto.MatchNotification;
+import com.projet.freelencetinder.dto.SwipeFeedPageDTO;
+import com.projet.freelencetinder.exception.MissionAlreadyMatchedException;
 import com.projet.freelencetinder.models.ClientSwipe;
 import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.models.Mission.Categorie;
@@ -31,12 +44,22 @@ import com.projet.freelencetinder.repository.ClientSwipeRepository;
 import com.projet.freelencetinder.repository.MissionRepository;
 import com.projet.freelencetinder.repository.SwipeRepository;
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.MatchingEvents.MissionChangedEvent;
+import com.projet.freelencetinder.servcie.MissionSkillIndex.IndexedMission;
+import com.projet.freelencetinder.servcie.SwipeIngestionQueue.PendingSwipe;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
 public class SwipeService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    private static final int RECO_TOP_K = 40;
+    private static final int DEFAULT_EXPLORE_PAGE_SIZE = 50;
+    private static final int MAX_EXPLORE_PAGE_SIZE = 200;
+    private static final int MAX_EXPLORE_PAGE = 50;   // exploration profonde : le tas de l'index grandit avec la page
+
     private final MissionRepository missionRepository;
     private final UtilisateurRepository utilisateurRepository;
     private final SwipeRepository swipeRepository;
@@ -44,6 +67,17 @@ public class SwipeService {
     private final ConversationService   conversationService;
     private final SimpMessagingTemplate broker;
     private final com.projet.freelencetinder.servcie.CompetenceService competenceService;
+    private final MissionSkillIndex missionSkillIndex;
+    private final FreelanceDiscoveryIndex freelanceDiscoveryIndex;
+    private final FreelanceSummaryBulkAssembler summaryAssembler;
+    private final ApplicationEventPublisher publisher;
+    private final SwipeSeenFilter seenFilter;
+    private final SwipeIngestionProperties ingestion;
+    private final SwipeIngestionQueue ingestionQueue;
+    private final SwipeStatsAccumulator stats;
+    private final EntityManager entityManager;
+    private final MutualLikeIndex mutualLikes;
+    private final Clock clock;
 
     @Autowired
     public SwipeService(MissionRepository missionRepository,
@@ -52,7 +86,18 @@ public class SwipeService {
                         ClientSwipeRepository clientSwipeRepository,
                         ConversationService conversationService,
                         SimpMessagingTemplate broker,
-                        com.projet.freelencetinder.servcie.CompetenceService competenceService) {
+                        com.projet.freelencetinder.servcie.CompetenceService competenceService,
+                        MissionSkillIndex missionSkillIndex,
+                        FreelanceDiscoveryIndex freelanceDiscoveryIndex,
+                        FreelanceSummaryBulkAssembler summaryAssembler,
+                        ApplicationEventPublisher publisher,
+                        SwipeSeenFilter seenFilter,
+                        SwipeIngestionProperties ingestion,
+                        SwipeIngestionQueue ingestionQueue,
+                        SwipeStatsAccumulator stats,
+                        EntityManager entityManager,
+                        MutualLikeIndex mutualLikes,
+                        Clock clock) {
         this.missionRepository      = missionRepository;
         this.utilisateurRepository  = utilisateurRepository;
         this.swipeRepository        = swipeRepository;
@@ -60,38 +105,73 @@ public class SwipeService {
         this.conversationService    = conversationService;
         this.broker                 = broker;
         this.competenceService      = competenceService;
+        this.missionSkillIndex      = missionSkillIndex;
+        this.freelanceDiscoveryIndex = freelanceDiscoveryIndex;
+        this.summaryAssembler       = summaryAssembler;
+        this.publisher              = publisher;
+        this.seenFilter             = seenFilter;
+        this.ingestion              = ingestion;
+        this.ingestionQueue         = ingestionQueue;
+        this.stats                  = stats;
+        this.entityManager          = entityManager;
+        this.mutualLikes            = mutualLikes;
+        this.clock                  = clock;
     }
 
     /* =============================================================
        LISTE DES MISSIONS POUR SWIPE FREELANCE
        ============================================================= */
+    @Transactional(readOnly = true)
     public List<MissionSummaryDTO> getMissionsForSwipe(Long freelanceId, Categorie categorie) {
-        Utilisateur freelance = getFreelanceOrThrow(freelanceId);
+        getFreelanceOrThrow(freelanceId);
 
-        Set<Long> dejaSwipes = swipeRepository.findByFreelanceId(freelanceId).stream()
-                .map(s -> s.getMission().getId())
-                .collect(Collectors.toSet());
+        TimeSnapshot t = TimeSnapshot.of(clock);
 
-        LocalDate today = LocalDate.now();
+        return missionRepository.findSwipeFeed(freelanceId, categorie, null, t.today(), Pageable.unpaged())
+                .stream()
+                .filter(m -> !ingestionQueue.isPending(null, freelanceId, m.getId()))
+                .map(m -> toSummaryDTO(m, t))
+                .collect(Collectors.toList());
+    }
 
-        return missionRepository.findAll().stream()
-                .filter(Mission::estDisponiblePourSwipe)
-                .filter(m -> !dejaSwipes.contains(m.getId()))
-                .filter(m -> categorie == null || m.getCategorie() == categorie)
-                .map(m -> toSummaryDTO(m, today))
+    /* =============================================================
+       FEED SWIPE PAGINÉ (keyset : cursor = dernier id reçu)
+       ============================================================= */
+    @Transactional(readOnly = true)
+    public SwipeFeedPageDTO getSwipeFeed(Long freelanceId, Categorie categorie, Long cursor, int size) {
+        getFreelanceOrThrow(freelanceId);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        TimeSnapshot t = TimeSnapshot.of(clock);
+
+        // size + 1 pour savoir s'il reste des cartes sans requête COUNT
+        List<Mission> rows = missionRepository.findSwipeFeed(
+                freelanceId, categorie, cursor, t.today(), PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Mission> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        // DISLIKE acquitté mais encore en file : absent du feed (le cursor reste celui de la page lue)
+        List<MissionSummaryDTO> items = page.stream()
+                .filter(m -> !ingestionQueue.isPending(null, freelanceId, m.getId()))
+                .map(m -> toSummaryDTO(m, t))
                 .collect(Collectors.toList());
+        Long nextCursor = page.isEmpty() ? cursor : page.get(page.size() - 1).getId();
+
+        return new SwipeFeedPageDTO(items, nextCursor, hasMore);
     }
 
     /* =============================================================
        SWIPE FREELANCE -> MISSION
        ============================================================= */
-    @Transactional
+    @Transactional(noRollbackFor = MissionAlreadyMatchedException.class) // le swipe perdant reste enregistré
     public Swipe swipeMission(Long freelanceId, Long missionId, Swipe.Decision decision) {
         return swipeMission(freelanceId, missionId, decision, null);
     }
 
     // surcharge avec dwellTimeMs (analytics front)
-    @Transactional
+    // mode ASYNC : un DISLIKE mis en file renvoie null (acquitté, écrit au prochain lot)
+    @Transactional(noRollbackFor = MissionAlreadyMatchedException.class)
     public Swipe swipeMission(Long freelanceId, Long missionId, Swipe.Decision decision, Long dwellTimeMs) {
 
         Utilisateur freelance = getFreelanceOrThrow(freelanceId);
@@ -100,34 +180,59 @@ public class SwipeService {
         if (mission.getClient() != null && mission.getClient().getId().equals(freelanceId)) {
             throw new IllegalStateException("Un freelance ne peut pas swiper sa propre mission");
         }
-        if (!mission.estDisponiblePourSwipe()) {
+        if (!mission.estDisponiblePourSwipe(LocalDate.now(clock))) {
             throw new IllegalStateException("Mission non disponible pour swipe (statut=" + mission.getStatut() + ")");
         }
-        if (swipeRepository.findByFreelanceIdAndMissionId(freelanceId, missionId).isPresent()) {
+        // négatif du filtre = jamais swipée : pas de lecture ; positif = confirmation en base
+        if (ingestionQueue.isPending(null, freelanceId, missionId)
+                || (seenFilter.mightHaveSwiped(freelanceId, missionId)
+                    && swipeRepository.existsByFreelanceIdAndMissionId(freelanceId, missionId))) {
             throw new IllegalStateException("Mission déjà swipée par ce freelance");
         }
 
+        // un DISLIKE ne peut pas produire de match : écriture différée (file pleine => synchrone)
+        if (decision == Swipe.Decision.DISLIKE && ingestion.isAsync()) {
+            switch (ingestionQueue.offer(new PendingSwipe(null, freelanceId, missionId, decision,
+                    validDwell(dwellTimeMs), LocalDateTime.now(clock)))) {
+                case ACCEPTED -> {
+                    seenFilter.record(freelanceId, missionId);
+                    return null;
+                }
+                // même swipe accepté entre isPending et offer (requêtes concurrentes)
+                case DUPLICATE -> throw new IllegalStateException("Mission déjà swipée par ce freelance");
+                case FULL -> { }
+            }
+        }
+
         Swipe swipe = new Swipe();
         swipe.setFreelance(freelance);
         swipe.setMission(mission);
         swipe.setDecision(decision);
-        swipe.setDateSwipe(LocalDateTime.now());
+        swipe.setDateSwipe(LocalDateTime.now(clock));
         if (dwellTimeMs != null && dwellTimeMs >= 0) {
             swipe.setDwellTimeMs(dwellTimeMs);
         }
 
-        swipeRepository.save(swipe);
+        try {
+            swipeRepository.saveAndFlush(swipe);
+        } catch (DataIntegrityViolationException ex) {
+            // swipe concurrent (ou filtre reconstruit juste avant un commit) : uk_swipe_freelance_mission
+            throw new IllegalStateException("Mission déjà swipée par ce freelance", ex);
+        }
+        seenFilter.record(freelanceId, missionId);
 
-        mission.incrementSwipe();
-        freelance.incrementNombreSwipes();
-        if (decision == Swipe.Decision.LIKE) mission.incrementLike();
+        // compteurs hors entités : pas de conflit de @Version entre swipes d'une même mission
+        stats.missionSwiped(missionId, decision == Swipe.Decision.LIKE);
+        stats.userSwiped(freelanceId, swipe.getDateSwipe());
 
         if (decision == Swipe.Decision.LIKE) {
             Utilisateur client = mission.getClient();
-            boolean clientLike = clientSwipeRepository
-                    .findByClientIdAndMissionIdAndFreelanceId(client.getId(), missionId, freelanceId)
-                    .map(c -> c.getDecision() == Swipe.Decision.LIKE)
-                    .orElse(false);
+            // sonde mémoire ; tant que l'index n'est pas chargé, la base fait foi
+            boolean clientLike = mutualLikes.freelanceLiked(missionId, freelanceId)
+                    || (!mutualLikes.isReady() && clientSwipeRepository
+                        .findByClientIdAndMissionIdAndFreelanceId(client.getId(), missionId, freelanceId)
+                        .map(c -> c.getDecision() == Swipe.Decision.LIKE)
+                        .orElse(false));
 
             if (clientLike && mission.getStatut() == Statut.EN_ATTENTE) {
                 handleMatch(mission, client, freelance, swipe, null);
@@ -139,7 +244,7 @@ public class SwipeService {
     /* =============================================================
        SWIPE CLIENT -> FREELANCE
        ============================================================= */
-    @Transactional
+    @Transactional(noRollbackFor = MissionAlreadyMatchedException.class)
     public ClientSwipe clientSwipeFreelance(Long clientId,
                                             Long missionId,
                                             Long freelanceId,
@@ -148,7 +253,8 @@ public class SwipeService {
     }
 
     // surcharge avec dwellTimeMs (analytics front)
-    @Transactional
+    // mode ASYNC : un DISLIKE mis en file renvoie null (acquitté, écrit au prochain lot)
+    @Transactional(noRollbackFor = MissionAlreadyMatchedException.class)
     public ClientSwipe clientSwipeFreelance(Long clientId,
                                             Long missionId,
                                             Long freelanceId,
@@ -167,34 +273,45 @@ public class SwipeService {
 
         Utilisateur freelance = getFreelanceOrThrow(freelanceId);
 
-        if (clientSwipeRepository
+        if (ingestionQueue.isPending(clientId, freelanceId, missionId)
+                || clientSwipeRepository
                 .findByClientIdAndMissionIdAndFreelanceId(clientId, missionId, freelanceId)
                 .isPresent()) {
             throw new IllegalStateException("Ce freelance a déjà été swipé par le client");
         }
 
+        if (decision == Swipe.Decision.DISLIKE && ingestion.isAsync()) {
+            switch (ingestionQueue.offer(new PendingSwipe(clientId, freelanceId, missionId, decision,
+                    validDwell(dwellTimeMs), LocalDateTime.now(clock)))) {
+                case ACCEPTED -> { return null; }
+                case DUPLICATE -> throw new IllegalStateException("Ce freelance a déjà été swipé par le client");
+                case FULL -> { }
+            }
+        }
+
         ClientSwipe cs = new ClientSwipe();
         cs.setClient(client);
         cs.setMission(mission);
         cs.setFreelance(freelance);
         cs.setDecision(decision);
-        cs.setDateSwipe(LocalDateTime.now());
+        cs.setDateSwipe(LocalDateTime.now(clock));
         if (dwellTimeMs != null && dwellTimeMs >= 0) {
             cs.setDwellTimeMs(dwellTimeMs);
         }
 
         clientSwipeRepository.save(cs);
 
-        if (decision == Swipe.Decision.LIKE) freelance.incrementLikesRecus();
+        if (decision == Swipe.Decision.LIKE) stats.likeReceived(freelanceId);
 
         if (decision == Swipe.Decision.LIKE
                 && mission.getStatut() == Statut.EN_ATTENTE
                 && !mission.isVerrouillee()) {
 
-            boolean freelanceLike = swipeRepository
-                    .findByFreelanceIdAndMissionId(freelanceId, missionId)
-                    .map(s -> s.getDecision() == Swipe.Decision.LIKE)
-                    .orElse(false);
+            boolean freelanceLike = mutualLikes.clientLiked(missionId, freelanceId)
+                    || (!mutualLikes.isReady() && swipeRepository
+                        .findByFreelanceIdAndMissionId(freelanceId, missionId)
+                        .map(s -> s.getDecision() == Swipe.Decision.LIKE)
+                        .orElse(false));
 
             if (freelanceLike) {
                handleMatch(mission, client, freelance, null, cs);
@@ -205,6 +322,8 @@ public class SwipeService {
 
     /* ============================================================================
        Gestion centralisée d’un MATCH (freelance + client LIKE)
+       - attribution par UPDATE conditionnel (claimForFreelance) : pas de verrou ni de retry,
+         le perdant d'une course reçoit MissionAlreadyMatchedException (409), son swipe est conservé
        ============================================================================ */
     private void handleMatch(Mission mission,
                              Utilisateur client,
@@ -212,33 +331,40 @@ public class SwipeService {
                              Swipe swipe,
                              ClientSwipe clientSwipe)
     {
-      try {
-          mission.affecterFreelance(freelance);
-          freelance.incrementMatchesObtenus();
-          if (swipe       != null) swipe.setAGenereMatch(true);
-          if (clientSwipe != null) clientSwipe.setAGenereMatch(true);
-          missionRepository.save(mission);
-
-          var conv = conversationService
-                  .findOrCreate(mission.getId(),
-                                 client.getId(),
-                                 freelance.getId());
-
-          MatchNotification notif = new MatchNotification(
-              conv.getId(), mission.getId(),
-              client.getId(), freelance.getId(),
-              mission.getTitre(),
-              client.getNomComplet(), freelance.getNomComplet(),
-              client.getPhotoProfilUrl(),
-              freelance.getPhotoProfilUrl()
-          );
-
-          broker.convertAndSendToUser(client.getEmail(), "/queue/matches", notif);
-          broker.convertAndSendToUser(freelance.getEmail(), "/queue/matches", notif);
-
-      } catch (OptimisticLockingFailureException ex) {
-          throw new IllegalStateException("Conflit de mise à jour (match concurrent)", ex);
+      boolean won = missionRepository.claimForFreelance(mission.getId(), freelance, LocalDateTime.now(clock)) == 1;
+      entityManager.refresh(mission); // l'UPDATE JPQL ne touche pas l'entité chargée
+      if (!won) {
+          // les deux LIKE du même couple peuvent se voir mutuellement : l'autre transaction a déjà notifié
+          if (mission.getFreelanceSelectionne() != null
+                  && mission.getFreelanceSelectionne().getId().equals(freelance.getId())) {
+              if (swipe       != null) swipe.setAGenereMatch(true);
+              if (clientSwipe != null) clientSwipe.setAGenereMatch(true);
+              return;
+          }
+          throw new MissionAlreadyMatchedException("Mission déjà attribuée à un autre freelance");
       }
+
+      stats.matchObtained(freelance.getId());
+      if (swipe       != null) swipe.setAGenereMatch(true);
+      if (clientSwipe != null) clientSwipe.setAGenereMatch(true);
+      publisher.publishEvent(new MissionChangedEvent(mission.getId()));
+
+      var conv = conversationService
+              .findOrCreate(mission.getId(),
+                             client.getId(),
+                             freelance.getId());
+
+      MatchNotification notif = new MatchNotification(
+          conv.getId(), mission.getId(),
+          client.getId(), freelance.getId(),
+          mission.getTitre(),
+          client.getNomComplet(), freelance.getNomComplet(),
+          client.getPhotoProfilUrl(),
+          freelance.getPhotoProfilUrl()
+      );
+
+      broker.convertAndSendToUser(client.getEmail(), "/queue/matches", notif);
+      broker.convertAndSendToUser(freelance.getEmail(), "/queue/matches", notif);
     }
 
     /* =============================================================
@@ -253,9 +379,11 @@ public class SwipeService {
             throw new IllegalStateException("La mission n’est plus disponible");
         }
 
-        mission.affecterFreelance(freelance);
-        missionRepository.save(mission);
-        freelance.incrementMatchesObtenus();
+        if (missionRepository.claimForFreelance(missionId, freelance, LocalDateTime.now(clock)) == 0) {
+            throw new MissionAlreadyMatchedException("Mission déjà attribuée à un autre freelance");
+        }
+        stats.matchObtained(freelanceId);
+        publisher.publishEvent(new MissionChangedEvent(mission.getId()));
     }
 
     /* =============================================================
@@ -268,6 +396,8 @@ public class SwipeService {
                 .orElseThrow(() -> new EntityNotFoundException("Aucun swipe trouvé"));
 
         swipeRepository.delete(swipe);
+        seenFilter.invalidate(freelanceId);
+        if (swipe.getDecision() == Swipe.Decision.LIKE) mutualLikes.freelanceLikeRemoved(missionId, freelanceId);
 
         Mission mission = swipe.getMission();
         if (swipe.getDecision() == Swipe.Decision.LIKE
@@ -279,6 +409,7 @@ public class SwipeService {
             mission.setStatut(Statut.EN_ATTENTE);
             mission.setVerrouillee(false);
             missionRepository.save(mission);
+            publisher.publishEvent(new MissionChangedEvent(mission.getId()));
         }
     }
 
@@ -292,6 +423,7 @@ public class SwipeService {
                 .orElseThrow(() -> new EntityNotFoundException("Aucun swipe client trouvé"));
 
         clientSwipeRepository.delete(cs);
+        if (cs.getDecision() == Swipe.Decision.LIKE) mutualLikes.clientLikeRemoved(missionId, freelanceId);
 
         Mission mission = cs.getMission();
         if (cs.getDecision() == Swipe.Decision.LIKE
@@ -303,46 +435,90 @@ public class SwipeService {
             mission.setStatut(Statut.EN_ATTENTE);
             mission.setVerrouillee(false);
             missionRepository.save(mission);
+            publisher.publishEvent(new MissionChangedEvent(mission.getId()));
         }
     }
 
     /* =============================================================
        RECOMMANDATIONS POUR FREELANCE
+       - candidats = index inversé compétence -> missions ouvertes
+       - tas borné (top-K) : chaque candidat n'est scoré qu'une fois
+       - seules les K missions retenues sont chargées depuis la base
        ============================================================= */
+    @Transactional(readOnly = true)
     public List<MissionRecommendationDTO> getRecommandationsPourFreelance(Long freelanceId) {
         Utilisateur freelance = getFreelanceOrThrow(freelanceId);
 
-        Set<Long> dejaSwipes = swipeRepository.findByFreelanceId(freelanceId).stream()
-                .map(s -> s.getMission().getId())
-                .collect(Collectors.toSet());
+        Set<Mission.Categorie> categoriesPref = EnumSet.noneOf(Mission.Categorie.class);
+        categoriesPref.addAll(swipeRepository
+                .findMissionCategoriesByFreelanceIdAndDecision(freelanceId, Swipe.Decision.LIKE));
+
+        CanonicalSkills freelancerCanon = competenceService.canonicalize(freelance.getCompetences());
+
+        // une seule lecture d'horloge pour tout le classement (cohérent à minuit)
+        TimeSnapshot t = TimeSnapshot.of(clock);
+        BigDecimal tarifHoraire = MissionScoring.tarif(freelance.getTarifHoraire());
+
+        // min-heap : la tête est le "pire" du top courant (score bas, puis id haut)
+        Comparator<ScoredMission> pire = Comparator.comparingInt(ScoredMission::score)
+                .thenComparing(ScoredMission::id, Comparator.reverseOrder());
+        PriorityQueue<ScoredMission> top = new PriorityQueue<>(RECO_TOP_K + 1, pire);
+
+        // les positifs du filtre "déjà vues" sont mis de côté puis confirmés en une seule requête
+        List<IndexedMission> candidates = new ArrayList<>();
+        List<Long> peutEtreSwipees = new ArrayList<>();
+        LongPredicate dejaVue = seenFilter.seenBy(freelanceId); // un accès au cache par requête
+        for (IndexedMission im : missionSkillIndex.candidates(freelancerCanon)) {
+            if (t.isExpired(im.dateLimiteCandidature())) continue;
+            if (ingestionQueue.isPending(null, freelanceId, im.id())) continue; // DISLIKE encore en file
+            candidates.add(im);
+            if (dejaVue.test(im.id())) peutEtreSwipees.add(im.id());
+        }
+        Set<Long> dejaSwipes = peutEtreSwipees.isEmpty()
+                ? Set.of()
+                : new HashSet<>(swipeRepository.findSwipedMissionIds(freelanceId, peutEtreSwipees));
+
+        for (IndexedMission im : candidates) {
+            if (dejaSwipes.contains(im.id())) continue;
+            int sc = MissionScoring.score(im, tarifHoraire, freelancerCanon, categoriesPref, t);
+            // tas plein et candidat moins bon que la tête : pas d'allocation
+            if (top.size() == RECO_TOP_K && !meilleurQue(sc, im.id(), top.peek())) continue;
+            top.offer(new ScoredMission(im, sc));
+            if (top.size() > RECO_TOP_K) top.poll();
+        }
+        if (top.isEmpty()) return List.of();
+
+        List<ScoredMission> ranked = new ArrayList<>(top);
+        ranked.sort(pire.reversed());
 
-        Set<Mission.Categorie> categoriesPref = swipeRepository
-                .findByFreelanceIdAndDecision(freelanceId, Swipe.Decision.LIKE)
+        Map<Long, Mission> byId = missionRepository
+                .findAllWithClientByIdIn(ranked.stream().map(ScoredMission::id).toList())
                 .stream()
-                .map(s -> s.getMission().getCategorie())
-                .collect(Collectors.toSet());
-
-        LocalDate today = LocalDate.now();
-
-        return missionRepository.findAll().stream()
-                .filter(Mission::estDisponiblePourSwipe)
-                .filter(m -> !dejaSwipes.contains(m.getId()))
-                .filter(m -> hasSkillOverlap(m, freelance))
-                .sorted(Comparator.comparingInt(
-                        (Mission m) -> scoreMissionPourFreelance(m, freelance, categoriesPref))
-                        .reversed())
-                .limit(40)
-                .map(m -> {
-                    int sc = scoreMissionPourFreelance(m, freelance, categoriesPref);
-                    return toRecommendationDTO(m, freelance, sc, today);
-                })
-                .collect(Collectors.toList());
+                .collect(Collectors.toMap(Mission::getId, m -> m));
+
+        List<MissionRecommendationDTO> out = new ArrayList<>(ranked.size());
+        for (ScoredMission sm : ranked) {
+            Mission m = byId.get(sm.id());
+            // l'index peut avoir un léger retard sur la base : re-vérification sur l'entité
+            if (m == null || !m.estDisponiblePourSwipe(t.today())) continue;
+            out.add(toRecommendationDTO(m, sm.mission(), freelancerCanon, sm.score(), t));
+        }
+        return out;
+    }
+
+    private record ScoredMission(IndexedMission mission, int score) {
+        Long id() { return mission.id(); }
+    }
+
+    /* même ordre que le comparateur "pire" : score plus haut, puis id plus bas */
+    private static boolean meilleurQue(int score, Long id, ScoredMission tete) {
+        return score != tete.score() ? score > tete.score() : id.compareTo(tete.id()) < 0;
     }
 
     /* =============================================================
        MAPPINGS DTO
        ============================================================= */
-    private MissionSummaryDTO toSummaryDTO(Mission m, LocalDate today) {
+    private MissionSummaryDTO toSummaryDTO(Mission m, TimeSnapshot t) {
         MissionSummaryDTO dto = new MissionSummaryDTO();
         dto.setId(m.getId());
         dto.setTitre(m.getTitre());
@@ -355,20 +531,18 @@ public class SwipeService {
         dto.setDateLimiteCandidature(m.getDateLimiteCandidature());
         dto.setModaliteTravail(m.getModaliteTravail());
 
-        boolean expired = m.estExpirée();
-        dto.setExpired(expired);
-        dto.setUrgent(!expired
-                && m.getDateLimiteCandidature() != null
-                && ChronoUnit.DAYS.between(today, m.getDateLimiteCandidature()) <= 3);
+        dto.setExpired(t.isExpired(m.getDateLimiteCandidature()));
+        dto.setUrgent(t.isUrgent(m.getDateLimiteCandidature()));
 
         dto.setClient(toClientInfoDTO(m.getClient()));
         return dto;
     }
 
     private MissionRecommendationDTO toRecommendationDTO(Mission m,
-                                                         Utilisateur freelance,
+                                                         IndexedMission im,
+                                                         CanonicalSkills competencesFreelance,
                                                          int score,
-                                                         LocalDate today) {
+                                                         TimeSnapshot t) {
         MissionRecommendationDTO dto = new MissionRecommendationDTO();
         dto.setId(m.getId());
         dto.setTitre(m.getTitre());
@@ -382,20 +556,14 @@ public class SwipeService {
         dto.setModaliteTravail(m.getModaliteTravail());
         dto.setScore(score);
 
-        int totalReq = m.getCompetencesRequises() != null ? m.getCompetencesRequises().size() : 0;
+        int totalReq = im.competencesCanoniques().size();
         dto.setTotalRequiredSkills(totalReq);
-        int matched = (int) (m.getCompetencesRequises() == null ? 0 :
-                m.getCompetencesRequises().stream()
-                        .filter(freelance.getCompetences()::contains)
-                        .count());
+        int matched = im.competencesCanoniques().intersectionCount(competencesFreelance);
         dto.setMatchedSkills(matched);
         dto.setMatchRatio(totalReq == 0 ? 0.0 : (double) matched / totalReq);
 
-        boolean expired = m.estExpirée();
-        dto.setExpired(expired);
-        dto.setUrgent(!expired
-                && m.getDateLimiteCandidature() != null
-                && ChronoUnit.DAYS.between(today, m.getDateLimiteCandidature()) <= 3);
+        dto.setExpired(t.isExpired(m.getDateLimiteCandidature()));
+        dto.setUrgent(t.isUrgent(m.getDateLimiteCandidature()));
 
         dto.setAlreadySwiped(false);
         dto.setLikedByCurrentUser(false);
@@ -444,45 +612,6 @@ public class SwipeService {
         return dto;
     }
 
-    /* =============================================================
-       LOGIQUE SCORING
-       ============================================================= */
-    private boolean hasSkillOverlap(Mission m, Utilisateur freelance) {
-        if (m.getCompetencesRequises() == null || m.getCompetencesRequises().isEmpty()) return true;
-        if (freelance.getCompetences() == null) return false;
-
-        // Canonicalize both sides for robust matching (case/accents)
-        java.util.Set<String> missionCanon = m.getCompetencesRequises().stream()
-                .map(competenceService::toCanonical)
-                .collect(java.util.stream.Collectors.toSet());
-        java.util.Set<String> freelancerCanon = freelance.getCompetences().stream()
-                .map(competenceService::toCanonical)
-                .collect(java.util.stream.Collectors.toSet());
-        return missionCanon.stream().anyMatch(freelancerCanon::contains);
-    }
-
-    private int scoreMissionPourFreelance(Mission m, Utilisateur freelance, Set<Mission.Categorie> categoriesPref) {
-        int score = 0;
-        long commonSkills = m.getCompetencesRequises() != null
-                ? m.getCompetencesRequises().stream()
-                .filter(freelance.getCompetences()::contains).count()
-                : 0;
-        score += commonSkills * 4;
-        if (categoriesPref.contains(m.getCategorie())) score += 5;
-        if (freelance.getTarifHoraire() == null
-                || (m.getBudget() != null && freelance.getTarifHoraire() != null
-                && m.getBudget().doubleValue() >= freelance.getTarifHoraire())) {
-            score += 2;
-        }
-        long ageDays = ChronoUnit.DAYS.between(m.getDatePublication(), LocalDateTime.now());
-        score += Math.max(0, 21 - ageDays);
-        if (m.getDateLimiteCandidature() != null) {
-            long toDeadline = ChronoUnit.DAYS.between(LocalDate.now(), m.getDateLimiteCandidature());
-            if (toDeadline <= 7 && toDeadline >= 0) score += 2;
-        }
-        return score;
-    }
-
     /* =============================================================
        HELPERS ENTITÉS
        ============================================================= */
@@ -500,6 +629,10 @@ public class SwipeService {
         return u;
     }
 
+    private static Long validDwell(Long dwellTimeMs) {
+        return dwellTimeMs != null && dwellTimeMs >= 0 ? dwellTimeMs : null;
+    }
+
     private Utilisateur getClientOrThrow(Long userId) {
         Utilisateur u = utilisateurRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Client introuvable (id=" + userId + ")"));
@@ -512,6 +645,7 @@ public class SwipeService {
     /* =============================================================
        FREELANCES QUI ONT LIKÉ UNE MISSION (vue client)
        ============================================================= */
+    @Transactional(readOnly = true)
     public List<FreelanceSummaryDTO> getFreelancersWhoLikedMission(Long clientId, Long missionId) {
         Utilisateur client = getClientOrThrow(clientId);
         Mission mission    = getMissionOrThrow(missionId);
@@ -520,86 +654,28 @@ public class SwipeService {
             throw new IllegalArgumentException("Cette mission n’appartient pas à ce client");
         }
 
-        Set<Long> dejaSwipes = clientSwipeRepository
-                .findByClientIdAndMissionId(clientId, missionId)
-                .stream()
-                .map(cs -> cs.getFreelance().getId())
-                .collect(Collectors.toSet());
+        Set<Long> dejaSwipes = new HashSet<>(
+                clientSwipeRepository.findFreelanceIdsByClientIdAndMissionId(clientId, missionId));
 
-        return swipeRepository
-                .findByMissionIdAndDecision(missionId, Swipe.Decision.LIKE)
+        List<Long> ids = swipeRepository
+                .findFreelanceIdsByMissionIdAndDecision(missionId, Swipe.Decision.LIKE)
                 .stream()
-                .map(Swipe::getFreelance)
-                .filter(f -> !dejaSwipes.contains(f.getId()))
-                .map(this::toFreelanceSummaryDTO)
-                .collect(Collectors.toList());
-    }
+                .filter(id -> !dejaSwipes.contains(id))
+                .toList();
 
-    /* -------------------------------------------------------------
-       Mapping Freelance -> FreelanceSummaryDTO (ENRICHI)
-       ------------------------------------------------------------- */
-    private FreelanceSummaryDTO toFreelanceSummaryDTO(Utilisateur f) {
-        FreelanceSummaryDTO dto = new FreelanceSummaryDTO();
-        dto.setId(f.getId());
-        dto.setNom(f.getNom());
-        dto.setPrenom(f.getPrenom());
-        dto.setPhotoUrl(f.getPhotoProfilUrl());
-        dto.setLocalisation(f.getLocalisation());
-        dto.setGouvernorat(f.getGouvernorat()); // AJOUT
-        dto.setNiveauExperience(f.getNiveauExperience() != null ? f.getNiveauExperience().name() : null);
-        dto.setDisponibilite(f.getDisponibilite() != null ? f.getDisponibilite().name() : null);
-        dto.setTarifHoraire(f.getTarifHoraire());
-        dto.setTarifJournalier(f.getTarifJournalier());
-        dto.setNoteMoyenne(f.getNoteMoyenne());
-        dto.setCompetences(f.getCompetences());
-        dto.setPortfolioUrls(f.getPortfolioUrls()); // AJOUT
-
-        dto.setBadgePrincipal(
-            f.getListeBadges() != null && !f.getListeBadges().isEmpty()
-                ? f.getListeBadges().iterator().next()
-                : null
-        );
-
-        // Champs “carte” supplémentaires
-        dto.setTitreProfil(f.getTitreProfil());
-        dto.setAnneesExperience(f.getAnneesExperience());
-        dto.setMobilite(f.getMobilite());
-        dto.setTimezone(f.getTimezone());
-        dto.setModelesEngagementPreferes(
-            f.getModelesEngagementPreferes() == null ? null : new java.util.ArrayList<>(f.getModelesEngagementPreferes())
-        );
-        dto.setDateDisponibilite(f.getDateDisponibilite() != null ? f.getDateDisponibilite().toString() : null);
-        dto.setChargeHebdoSouhaiteeJours(f.getChargeHebdoSouhaiteeJours());
-        dto.setLangues(f.getLangues());
-        dto.setCompetencesNiveaux(f.getCompetencesNiveaux());
-        dto.setTauxReussite(f.getTauxReussite());
-        dto.setTauxRespectDelais(f.getTauxRespectDelais());
-        dto.setTauxReembauche(f.getTauxReembauche());
-        dto.setDelaiReponseHeures(f.getDelaiReponseHeures());
-        dto.setDelaiReponseMedianMinutes(f.getDelaiReponseMedianMinutes());
-        dto.setCertifications(f.getCertifications());
-
-        // KYC / vérifs
-        dto.setEmailVerifie(f.isEmailVerifie());
-        dto.setTelephoneVerifie(f.isTelephoneVerifie());
-        dto.setIdentiteVerifiee(f.isIdentiteVerifiee());
-        dto.setRibVerifie(f.isRibVerifie());
-        dto.setKycStatut(f.getKycStatut());
-
-        // Nouveaux champs
-        dto.setPreferenceDuree(f.getPreferenceDuree());
-        dto.setNombreAvis(f.getNombreAvis());
-        dto.setLinkedinUrl(f.getLinkedinUrl());
-        dto.setGithubUrl(f.getGithubUrl());
-
-        return dto;
+        return summaryAssembler.toSummariesByIds(ids);
     }
 
     /* =============================================================
-       EXPLORE FREELANCES POUR UNE MISSION (match par catégorie)
+       EXPLORE FREELANCES POUR UNE MISSION (index catégorie / compétences)
        ============================================================= */
     @Transactional(readOnly = true)
     public List<FreelanceSummaryDTO> getFreelancersMatchingMission(Long clientId, Long missionId) {
+        return getFreelancersMatchingMission(clientId, missionId, 0, DEFAULT_EXPLORE_PAGE_SIZE);
+    }
+
+    @Transactional(readOnly = true)
+    public List<FreelanceSummaryDTO> getFreelancersMatchingMission(Long clientId, Long missionId, int page, int size) {
 
         Utilisateur client  = getClientOrThrow(clientId);
         Mission     mission = getMissionOrThrow(missionId);
@@ -607,23 +683,22 @@ public class SwipeService {
             throw new IllegalArgumentException("Cette mission n’appartient pas à ce client");
         }
 
-        Mission.Categorie categorie = mission.getCategorie();
+        int pageIndex = Math.max(0, Math.min(page, MAX_EXPLORE_PAGE));
+        int pageSize  = Math.max(1, Math.min(size, MAX_EXPLORE_PAGE_SIZE));
 
-        Set<Long> dejaSwipes = clientSwipeRepository
-                .findByClientIdAndMissionId(clientId, missionId)
-                .stream()
-                .map(cs -> cs.getFreelance().getId())
-                .collect(Collectors.toSet());
-
-        Long dejaAffecte = mission.getFreelanceSelectionne() != null
-                ? mission.getFreelanceSelectionne().getId() : null;
-
-        return utilisateurRepository.findAll().stream()
-            .filter(u -> u.getTypeUtilisateur() == TypeUtilisateur.FREELANCE && u.isEstActif())
-            .filter(u -> u.getCategories() != null && u.getCategories().contains(categorie))
-            .filter(u -> !dejaSwipes.contains(u.getId()))
-            .filter(u -> !Objects.equals(u.getId(), dejaAffecte))
-            .map(this::toFreelanceSummaryDTO)
-            .collect(Collectors.toList());
+        Set<Long> exclus = new HashSet<>(
+                clientSwipeRepository.findFreelanceIdsByClientIdAndMissionId(clientId, missionId));
+        if (mission.getFreelanceSelectionne() != null) {
+            exclus.add(mission.getFreelanceSelectionne().getId());
+        }
+
+        List<Long> ids = freelanceDiscoveryIndex.rank(
+                mission.getCategorie(),
+                competenceService.canonicalize(mission.getCompetencesRequises()),
+                exclus, pageIndex, pageSize);
+        if (ids.isEmpty()) return List.of();
+
+        // l'assembleur conserve l'ordre des ids (classement de l'index)
+        return summaryAssembler.toSummariesByIds(ids);
     }
 }
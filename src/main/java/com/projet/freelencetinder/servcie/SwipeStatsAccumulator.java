@@ -0,0 +1,200 @@
+package com.projet.freelencetinder.servcie;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Compteurs de swipes / likes / matchs (Mission, Utilisateur) hors des entités versionnées.
+ *
+ * - deltas accumulés en mémoire par id, sans toucher à la ligne ni à sa @Version ;
+ * - enregistrés après commit (un rollback ne compte rien) ;
+ * - vidés périodiquement : UPDATE col = col + ? par lots, puis à l'arrêt ; un lot en échec
+ *   est remis dans les maps et retenté au vidage suivant.
+ * Les valeurs lues sur les entités peuvent donc avoir jusqu'à un intervalle de retard.
+ */
+@Component
+public class SwipeStatsAccumulator {
+
+    private static final Logger log = LoggerFactory.getLogger(SwipeStatsAccumulator.class);
+
+    /* Deltas d'une ligne ; modifiés uniquement sous le verrou de case de la map (compute / remove). */
+    private static final class MissionDeltas {
+        long swipes;
+        long likes;
+    }
+
+    private static final class UserDeltas {
+        long swipes;
+        long likesRecus;
+        long matches;
+        LocalDateTime dernierSwipe;
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final Map<Long, MissionDeltas> missions = new ConcurrentHashMap<>();
+    private final Map<Long, UserDeltas> users = new ConcurrentHashMap<>();
+
+    public SwipeStatsAccumulator(JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /* ===================== Enregistrement ===================== */
+
+    /** Mission.swipesRecus (+ likesRecus si like). */
+    public void missionSwiped(Long missionId, boolean like) {
+        afterCommit(() -> missions.compute(missionId, (id, d) -> {
+            if (d == null) d = new MissionDeltas();
+            d.swipes++;
+            if (like) d.likes++;
+            return d;
+        }));
+    }
+
+    /** Utilisateur.nombreSwipes et dernierSwipeAt. */
+    public void userSwiped(Long userId, LocalDateTime at) {
+        afterCommit(() -> users.compute(userId, (id, d) -> {
+            if (d == null) d = new UserDeltas();
+            d.swipes++;
+            if (d.dernierSwipe == null || at.isAfter(d.dernierSwipe)) d.dernierSwipe = at;
+            return d;
+        }));
+    }
+
+    /** Utilisateur.likesRecus. */
+    public void likeReceived(Long userId) {
+        afterCommit(() -> users.compute(userId, (id, d) -> {
+            if (d == null) d = new UserDeltas();
+            d.likesRecus++;
+            return d;
+        }));
+    }
+
+    /** Utilisateur.matchesObtenus. */
+    public void matchObtained(Long userId) {
+        afterCommit(() -> users.compute(userId, (id, d) -> {
+            if (d == null) d = new UserDeltas();
+            d.matches++;
+            return d;
+        }));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /* ===================== Écriture ===================== */
+
+    @Scheduled(fixedDelayString = "${swipe.stats.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (!missions.isEmpty() || !users.isEmpty()) flush();
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        flush();
+    }
+
+    public synchronized void flush() {
+        Map<Long, MissionDeltas> missionBatch = new HashMap<>();
+        for (Long id : missions.keySet()) {
+            MissionDeltas d = missions.remove(id); // remove atomique : plus aucun writer sur d
+            if (d != null) missionBatch.put(id, d);
+        }
+        Map<Long, UserDeltas> userBatch = new HashMap<>();
+        for (Long id : users.keySet()) {
+            UserDeltas d = users.remove(id);
+            if (d != null) userBatch.put(id, d);
+        }
+
+        // une transaction par table : un lot rejeté n'a rien écrit, ses deltas sont rejoués
+        if (!missionBatch.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(missionBatch.size());
+            missionBatch.forEach((id, d) -> args.add(new Object[] { d.swipes, d.likes, id }));
+            try {
+                tx.executeWithoutResult(s -> jdbc.batchUpdate("""
+                        update mission
+                           set swipes_recus = swipes_recus + ?,
+                               likes_recus  = likes_recus + ?
+                         where id = ?
+                        """, args));
+            } catch (DataAccessException | TransactionException ex) {
+                missionBatch.forEach(this::remergeMission);
+                log.error("[SwipeStats] Écriture des compteurs de {} missions échouée, nouvel essai au prochain vidage: {}",
+                        missionBatch.size(), ex.getMessage());
+            }
+        }
+        if (!userBatch.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(userBatch.size());
+            userBatch.forEach((id, d) -> args.add(new Object[] { d.swipes, d.likesRecus, d.matches,
+                    d.dernierSwipe == null ? null : Timestamp.valueOf(d.dernierSwipe), id }));
+            try {
+                tx.executeWithoutResult(s -> jdbc.batchUpdate("""
+                        update utilisateur
+                           set nombre_swipes    = nombre_swipes + ?,
+                               likes_recus      = likes_recus + ?,
+                               matches_obtenus  = matches_obtenus + ?,
+                               dernier_swipe_at = greatest(dernier_swipe_at, cast(? as timestamp))
+                         where id = ?
+                        """, args));
+            } catch (DataAccessException | TransactionException ex) {
+                userBatch.forEach(this::remergeUser);
+                log.error("[SwipeStats] Écriture des compteurs de {} utilisateurs échouée, nouvel essai au prochain vidage: {}",
+                        userBatch.size(), ex.getMessage());
+            }
+        }
+    }
+
+    /* Deltas non écrits remis dans la map, additionnés à ceux arrivés entre-temps. */
+    private void remergeMission(Long missionId, MissionDeltas failed) {
+        missions.compute(missionId, (id, d) -> {
+            if (d == null) return failed;
+            d.swipes += failed.swipes;
+            d.likes += failed.likes;
+            return d;
+        });
+    }
+
+    private void remergeUser(Long userId, UserDeltas failed) {
+        users.compute(userId, (id, d) -> {
+            if (d == null) return failed;
+            d.swipes += failed.swipes;
+            d.likesRecus += failed.likesRecus;
+            d.matches += failed.matches;
+            if (d.dernierSwipe == null
+                    || (failed.dernierSwipe != null && failed.dernierSwipe.isAfter(d.dernierSwipe))) {
+                d.dernierSwipe = failed.dernierSwipe;
+            }
+            return d;
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.projet.freelencetinder.servcie;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Instant figé pour la durée d'un appel de service (classement, page de feed, mapping DTO).
+ *
+ * - lu une seule fois sur le Clock injecté, puis passé en paramètre : toutes les cartes
+ *   d'un même classement voient la même date, y compris à minuit ;
+ * - jours epoch et nanos du jour pré-calculés : les comparaisons de dates dans la boucle
+ *   de scoring se font sur des long, sans objet temporaire.
+ */
+public record TimeSnapshot(LocalDateTime now, LocalDate today, long todayEpochDay, long nowNanoOfDay) {
+
+    public static TimeSnapshot of(Clock clock) {
+        return of(LocalDateTime.now(clock));
+    }
+
+    public static TimeSnapshot of(LocalDateTime now) {
+        return new TimeSnapshot(now, now.toLocalDate(),
+                now.toLocalDate().toEpochDay(), now.toLocalTime().toNanoOfDay());
+    }
+
+    public boolean isExpired(LocalDate dateLimite) {
+        return dateLimite != null && dateLimite.toEpochDay() < todayEpochDay;
+    }
+
+    /** = ChronoUnit.DAYS.between(today, date). */
+    public long daysUntil(LocalDate date) {
+        return date.toEpochDay() - todayEpochDay;
+    }
+
+    /** = ChronoUnit.DAYS.between(from, now) : jours entiers, tronqués vers zéro. */
+    public long daysSince(LocalDateTime from) {
+        long days = todayEpochDay - from.toLocalDate().toEpochDay();
+        long fromNanos = from.toLocalTime().toNanoOfDay();
+        if (days > 0 && nowNanoOfDay < fromNanos) days--;
+        else if (days < 0 && nowNanoOfDay > fromNanos) days++;
+        return days;
+    }
+
+    /** Carte "urgente" : non expirée et date limite dans 3 jours ou moins. */
+    public boolean isUrgent(LocalDate dateLimite) {
+        return dateLimite != null && !isExpired(dateLimite) && daysUntil(dateLimite) <= 3;
+    }
+}
@@ -0,0 +1,114 @@
+package com.projet.freelencetinder.servcie;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projet.freelencetinder.config.StompBrokerProperties;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.MatchingEvents.FreelanceProfileChangedEvent;
+
+/**
+ * Principal (email) <-> id utilisateur, en mémoire : chaque requête REST / message STOMP
+ * authentifié résout son utilisateur sans relire la table utilisateur.
+ *
+ * - deux caches LRU bornés, chargés paresseusement (requêtes sur une colonne) ;
+ * - l'email peut changer : entrées de l'utilisateur retirées après commit de la mise à
+ *   jour de son profil (FreelanceProfileChangedEvent, publié pour tous les types) ; une
+ *   lecture base commencée avant une éviction n'est pas mise en cache (epoch) ;
+ * - plusieurs instances (stomp.broker.mode=RELAY) : l'éviction ne concerne que le nœud qui
+ *   a traité la mise à jour, le cache est donc désactivé et chaque résolution lit la base.
+ */
+@Component
+public class UserIdentityCache {
+
+    private final UtilisateurRepository utilisateurRepository;
+    private final Map<String, Long> idsParEmail;
+    private final Map<Long, String> emailsParId;
+    private final boolean enabled;
+    private long epoch; // évictions ; gardé par this
+
+    public UserIdentityCache(UtilisateurRepository utilisateurRepository,
+                             StompBrokerProperties brokerProps,
+                             @Value("${chat.identity-cache.max-entries:50000}") int maxEntries) {
+        this.utilisateurRepository = utilisateurRepository;
+        this.enabled = !brokerProps.isRelay();
+        this.idsParEmail = lru(maxEntries);
+        this.emailsParId = lru(maxEntries);
+    }
+
+    /** Id de l'utilisateur authentifié : principal = id numérique ou email. */
+    public Long idOf(String principalName) {
+        try {
+            return Long.valueOf(principalName);
+        } catch (NumberFormatException e) {
+            // email : voir ci-dessous
+        }
+        if (!enabled) return loadId(principalName);
+        long vu;
+        synchronized (this) {
+            Long id = idsParEmail.get(principalName);
+            if (id != null) return id;
+            vu = epoch;
+        }
+        Long id = loadId(principalName);
+        synchronized (this) {
+            if (vu != epoch) return id; // profil modifié pendant la lecture : valeur peut-être périmée
+            idsParEmail.put(principalName, id);
+            emailsParId.put(id, principalName);
+        }
+        return id;
+    }
+
+    /** Email = nom du principal STOMP (destinations /user/...). */
+    public String emailOf(Long userId) {
+        if (!enabled) return loadEmail(userId);
+        long vu;
+        synchronized (this) {
+            String email = emailsParId.get(userId);
+            if (email != null) return email;
+            vu = epoch;
+        }
+        String email = loadEmail(userId);
+        synchronized (this) {
+            if (vu != epoch) return email;
+            emailsParId.put(userId, email);
+            idsParEmail.put(email, userId);
+        }
+        return email;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfileChanged(FreelanceProfileChangedEvent event) {
+        Long userId = event.userId();
+        synchronized (this) {
+            epoch++;
+            String email = emailsParId.remove(userId);
+            if (email != null) idsParEmail.remove(email);
+            idsParEmail.values().removeIf(userId::equals); // entrée chargée par email seulement
+        }
+    }
+
+    private Long loadId(String email) {
+        return utilisateurRepository.findIdByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Utilisateur introuvable: " + email));
+    }
+
+    private String loadEmail(Long userId) {
+        return utilisateurRepository.findEmailById(userId)
+                .orElseThrow(() -> new IllegalStateException("Utilisateur introuvable: " + userId));
+    }
+
+    private static <K, V> Map<K, V> lru(int maxEntries) {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+}
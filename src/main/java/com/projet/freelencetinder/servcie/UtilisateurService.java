@@ -7,6 +7,7 @@ import java.util.*;
 import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,7 @@ import com.projet.freelencetinder.models.Utilisateur;
 import com.projet.freelencetinder.models.Utilisateur.TypeUtilisateur;
 import com.projet.freelencetinder.models.Utilisateur.*; // enums internes
 import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.MatchingEvents.FreelanceProfileChangedEvent;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -26,6 +28,8 @@ public class UtilisateurService {
 
     private final UtilisateurRepository utilisateurRepository;
     private final com.projet.freelencetinder.servcie.CompetenceService competenceService;
+    private final ApplicationEventPublisher publisher;
+    private final SwipeStatsAccumulator swipeStats;
     private static final Logger log = LoggerFactory.getLogger(UtilisateurService.class);
 
     /* Regex simples */
@@ -39,9 +43,13 @@ public class UtilisateurService {
 
     @Autowired
     public UtilisateurService(UtilisateurRepository utilisateurRepository,
-                              com.projet.freelencetinder.servcie.CompetenceService competenceService) {
+                              com.projet.freelencetinder.servcie.CompetenceService competenceService,
+                              ApplicationEventPublisher publisher,
+                              SwipeStatsAccumulator swipeStats) {
         this.utilisateurRepository = utilisateurRepository;
         this.competenceService = competenceService;
+        this.publisher = publisher;
+        this.swipeStats = swipeStats;
     }
 
     /* =========================================================
@@ -78,8 +86,11 @@ public class UtilisateurService {
         }
         applyTunisiaDefaults(utilisateur);
         sanitizeNumericRanges(utilisateur);
+        competenceService.syncSkillVector(utilisateur);
 
-        return utilisateurRepository.save(utilisateur);
+        Utilisateur saved = utilisateurRepository.save(utilisateur);
+        publisher.publishEvent(new FreelanceProfileChangedEvent(saved.getId()));
+        return saved;
     }
 
     /* =========================================================
@@ -249,6 +260,8 @@ public class UtilisateurService {
         ensureDailySuperlikesReset(existing);
 
         existing.setDerniereMiseAJour(LocalDateTime.now());
+        competenceService.syncSkillVector(existing);
+        publisher.publishEvent(new FreelanceProfileChangedEvent(id));
         return utilisateurRepository.save(existing);
     }
 
@@ -276,10 +289,12 @@ public class UtilisateurService {
             Set<String> normalized = competenceService.normalizeSet(competences);
             log.info("[Utilisateur#patchProfil] Normalisation compétences: {} -> {}", competences, normalized);
             u.setCompetences(normalized);
+            competenceService.syncSkillVector(u);
         }
         if (categories != null && !categories.isEmpty()) u.setCategories(categories);
 
         u.setDerniereMiseAJour(LocalDateTime.now());
+        publisher.publishEvent(new FreelanceProfileChangedEvent(id));
         return utilisateurRepository.save(u);
     }
 
@@ -292,6 +307,7 @@ public class UtilisateurService {
         u.setEstActif(actif);
         u.setDerniereMiseAJour(LocalDateTime.now());
         utilisateurRepository.save(u);
+        publisher.publishEvent(new FreelanceProfileChangedEvent(id));
     }
 
     /* =========================================================
@@ -321,6 +337,7 @@ public class UtilisateurService {
         if (!utilisateurRepository.existsById(id))
             throw new EntityNotFoundException("Impossible de supprimer, utilisateur introuvable avec l'id " + id);
         utilisateurRepository.deleteById(id);
+        publisher.publishEvent(new FreelanceProfileChangedEvent(id));
     }
 
     /* =========================================================
@@ -330,22 +347,20 @@ public class UtilisateurService {
     public void incrementSwipe(Long userId) {
         Utilisateur u = getUtilisateurById(userId);
         ensureDailySuperlikesReset(u);
-        u.incrementNombreSwipes();
         utilisateurRepository.save(u);
+        swipeStats.userSwiped(userId, LocalDateTime.now());
     }
 
     @Transactional
     public void incrementLikeRecu(Long freelanceId) {
-        Utilisateur u = getUtilisateurById(freelanceId);
-        u.incrementLikesRecus();
-        utilisateurRepository.save(u);
+        getUtilisateurById(freelanceId);
+        swipeStats.likeReceived(freelanceId);
     }
 
     @Transactional
     public void incrementMatch(Long userId) {
-        Utilisateur u = getUtilisateurById(userId);
-        u.incrementMatchesObtenus();
-        utilisateurRepository.save(u);
+        getUtilisateurById(userId);
+        swipeStats.matchObtained(userId);
     }
 
     /* =========================================================
@@ -2,11 +2,15 @@ package com.projet.freelencetinder.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
+import com.projet.freelencetinder.catalog.CompetenceRegistry;
 import com.projet.freelencetinder.models.Mission;
 import com.projet.freelencetinder.servcie.CompetenceService;
 
@@ -26,6 +30,15 @@ public class CompetenceServiceTest {
         assertEquals("Kubernetes", service.toCanonical("k8s"));
     }
 
+    @Test
+    void canonicalize_intersectsAcrossAliasesAndUnknownSkills() {
+        var a = service.canonicalize(List.of("js", "k8s", "Cobol maison"));
+        var b = service.canonicalize(List.of("JavaScript", "Cobol maison", "React"));
+        assertEquals(2, a.intersectionCount(b));
+        assertTrue(a.intersects(b));
+        assertFalse(a.intersects(service.canonicalize(List.of("React"))));
+    }
+
     @Test
     void listByCategories_unionIsNonEmpty() {
         List<String> list = service.listByCategories(Set.of(Mission.Categorie.DEVELOPPEMENT_WEB, Mission.Categorie.DESIGN_GRAPHIQUE));
@@ -40,6 +53,52 @@ public class CompetenceServiceTest {
         List<String> r2 = service.search("photos", null);
         assertTrue(r2.stream().anyMatch(s -> s.equals("Adobe Photoshop")));
     }
-}
 
+    @Test
+    void listByCategories_matchesSortedUnion() {
+        Set<Mission.Categorie> cats = Set.of(Mission.Categorie.DEVELOPPEMENT_MOBILE, Mission.Categorie.CONSULTING);
+        List<String> expected = cats.stream()
+                .flatMap(c -> CompetenceRegistry.COMPETENCES_PAR_CATEGORIE.get(c).stream())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(expected, service.listByCategories(cats));
+        assertSame(service.listByCategories(cats), service.listByCategories(cats));
+    }
 
+    @Test
+    void search_matchesLinearScanOrdering() {
+        List<Set<Mission.Categorie>> catSets = new ArrayList<>();
+        catSets.add(null);
+        catSets.add(Set.of(Mission.Categorie.DEVELOPPEMENT_WEB));
+        catSets.add(Set.of(Mission.Categorie.DESIGN_GRAPHIQUE, Mission.Categorie.MARKETING_DIGITAL));
+        for (String q : List.of("a", "e", "re", "rea", "script", "SQL", "  Dév ", "design", "zzz", "ci/cd", "é")) {
+            for (Set<Mission.Categorie> cats : catSets) {
+                assertEquals(linearSearch(q, cats), service.search(q, cats), "q=" + q + " cats=" + cats);
+            }
+        }
+    }
+
+    /** Référence : ancien algorithme (deux passes linéaires sur le catalogue). */
+    private List<String> linearSearch(String q, Set<Mission.Categorie> cats) {
+        String nq = CompetenceRegistry.normalize(q);
+        List<String> base = (cats == null || cats.isEmpty())
+                ? CompetenceRegistry.TOUTES_LES_COMPETENCES
+                : cats.stream()
+                      .flatMap(c -> CompetenceRegistry.COMPETENCES_PAR_CATEGORIE.get(c).stream())
+                      .distinct().sorted().collect(Collectors.toList());
+        List<String> out = base.stream()
+                .filter(s -> CompetenceRegistry.normalize(s).startsWith(nq))
+                .limit(100)
+                .collect(Collectors.toList());
+        Set<String> already = new LinkedHashSet<>(out);
+        for (String s : base) {
+            if (already.size() >= 100) break;
+            if (!already.contains(s) && CompetenceRegistry.normalize(s).contains(nq)) {
+                already.add(s);
+                out.add(s);
+            }
+        }
+        return out;
+    }
+}
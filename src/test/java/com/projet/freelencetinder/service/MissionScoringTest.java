@@ -0,0 +1,122 @@
+package com.projet.freelencetinder.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.projet.freelencetinder.catalog.CanonicalSkills;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.servcie.CompetenceService;
+import com.projet.freelencetinder.servcie.MissionScoring;
+import com.projet.freelencetinder.servcie.MissionSkillIndex.IndexedMission;
+import com.projet.freelencetinder.servcie.TimeSnapshot;
+
+/**
+ * Scoring des recommandations : mêmes calculs de jours que ChronoUnit (y compris autour
+ * de minuit) et boucle de scoring sans allocation.
+ */
+public class MissionScoringTest {
+
+    private static final int MISSIONS = 10_000;
+
+    private final CompetenceService competences = new CompetenceService();
+
+    @Test
+    void snapshotDays_matchChronoUnit() {
+        Random rnd = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 0, 0);
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime now = base.plusMinutes(rnd.nextInt(60 * 24 * 60));
+            LocalDateTime pub = base.plusMinutes(rnd.nextInt(60 * 24 * 60)).plusNanos(rnd.nextInt(1000));
+            LocalDate limite = base.toLocalDate().plusDays(rnd.nextInt(60));
+            TimeSnapshot t = TimeSnapshot.of(now);
+
+            assertEquals(ChronoUnit.DAYS.between(pub, now), t.daysSince(pub), pub + " -> " + now);
+            assertEquals(ChronoUnit.DAYS.between(now.toLocalDate(), limite), t.daysUntil(limite));
+            assertEquals(limite.isBefore(now.toLocalDate()), t.isExpired(limite));
+        }
+    }
+
+    @Test
+    void snapshot_isStableAcrossMidnight() {
+        TimeSnapshot t = TimeSnapshot.of(LocalDateTime.of(2025, 6, 1, 23, 59, 59, 999_999_999));
+        LocalDate limite = LocalDate.of(2025, 6, 1);
+        assertFalse(t.isExpired(limite));
+        assertTrue(t.isUrgent(limite));
+        assertEquals(0, t.daysSince(LocalDateTime.of(2025, 6, 1, 0, 0)));
+    }
+
+    @Test
+    void scoringLoop_doesNotAllocate() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        assumeTrue(mx instanceof com.sun.management.ThreadMXBean, "compteur d'allocation indisponible");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) mx;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        IndexedMission[] missions = dataset();
+        CanonicalSkills freelance = competences.canonicalize(List.of("Java", "Spring Boot", "React", "Docker"));
+        Set<Mission.Categorie> prefs = EnumSet.of(Mission.Categorie.DEVELOPPEMENT_WEB);
+        BigDecimal tarif = MissionScoring.tarif(25.0);
+        TimeSnapshot t = TimeSnapshot.of(LocalDateTime.of(2025, 6, 15, 10, 30));
+
+        long sink = 0;
+        for (int round = 0; round < 20; round++) { // chauffe JIT
+            sink += scoreAll(missions, tarif, freelance, prefs, t);
+        }
+
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int round = 0; round < 10; round++) {
+            sink += scoreAll(missions, tarif, freelance, prefs, t);
+        }
+        long allocated = threads.getThreadAllocatedBytes(tid) - before;
+
+        assertTrue(sink > 0);
+        // 100k scorings : quelques octets de bruit tolérés (compteur lui-même), pas un objet par mission
+        assertTrue(allocated < 16 * 1024, "octets alloués pendant le scoring: " + allocated);
+    }
+
+    private static long scoreAll(IndexedMission[] missions, BigDecimal tarif, CanonicalSkills freelance,
+                                 Set<Mission.Categorie> prefs, TimeSnapshot t) {
+        long total = 0;
+        for (IndexedMission m : missions) {
+            total += MissionScoring.score(m, tarif, freelance, prefs, t);
+        }
+        return total;
+    }
+
+    private IndexedMission[] dataset() {
+        Random rnd = new Random(7);
+        List<String> catalogue = competences.listAll();
+        Mission.Categorie[] categories = Mission.Categorie.values();
+        LocalDateTime base = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+        IndexedMission[] out = new IndexedMission[MISSIONS];
+        for (int i = 0; i < MISSIONS; i++) {
+            List<String> skills = List.of(
+                    catalogue.get(rnd.nextInt(catalogue.size())),
+                    catalogue.get(rnd.nextInt(catalogue.size())),
+                    catalogue.get(rnd.nextInt(catalogue.size())));
+            out[i] = new IndexedMission((long) i, 1L,
+                    categories[rnd.nextInt(categories.length)],
+                    BigDecimal.valueOf(rnd.nextInt(10_000), 2).multiply(BigDecimal.TEN),
+                    base.plusMinutes(rnd.nextInt(60 * 24 * 20)),
+                    rnd.nextInt(5) == 0 ? null : base.toLocalDate().plusDays(10 + rnd.nextInt(30)),
+                    Set.copyOf(skills),
+                    competences.canonicalize(skills));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,192 @@
+package com.projet.freelencetinder.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.projet.freelencetinder.config.SwipeIngestionProperties;
+import com.projet.freelencetinder.exception.MissionAlreadyMatchedException;
+import com.projet.freelencetinder.models.ClientSwipe;
+import com.projet.freelencetinder.models.Conversation;
+import com.projet.freelencetinder.models.Mission;
+import com.projet.freelencetinder.models.Swipe;
+import com.projet.freelencetinder.models.Utilisateur;
+import com.projet.freelencetinder.repository.ClientSwipeRepository;
+import com.projet.freelencetinder.repository.MissionRepository;
+import com.projet.freelencetinder.repository.SwipeRepository;
+import com.projet.freelencetinder.repository.UtilisateurRepository;
+import com.projet.freelencetinder.servcie.CompetenceService;
+import com.projet.freelencetinder.servcie.ConversationService;
+import com.projet.freelencetinder.servcie.FreelanceDiscoveryIndex;
+import com.projet.freelencetinder.servcie.FreelanceSummaryBulkAssembler;
+import com.projet.freelencetinder.servcie.MissionSkillIndex;
+import com.projet.freelencetinder.servcie.MutualLikeIndex;
+import com.projet.freelencetinder.servcie.SwipeIngestionQueue;
+import com.projet.freelencetinder.servcie.SwipeSeenFilter;
+import com.projet.freelencetinder.servcie.SwipeService;
+import com.projet.freelencetinder.servcie.SwipeStatsAccumulator;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * LIKE mutuels concurrents sur une même mission : un seul gagnant, les autres reçoivent
+ * MissionAlreadyMatchedException (pas de conflit de version, pas d'autre erreur).
+ * L'UPDATE conditionnel est simulé par un compare-and-set, comme le ferait PostgreSQL, et le
+ * refresh de la mission recopie le gagnant : ces tests couvrent l'orchestration du service
+ * (claim, branche perdante, notification), pas le SQL de claimForFreelance lui-même.
+ */
+public class SwipeServiceConcurrencyTest {
+
+    private static final long MISSION_ID = 1L;
+    private static final long CLIENT_ID = 10L;
+    private static final int FREELANCES = 32;
+
+    private MissionRepository missionRepository;
+    private ConversationService conversationService;
+    private SimpMessagingTemplate broker;
+    private EntityManager entityManager;
+    private Mission mission;
+    private SwipeService service;
+
+    @BeforeEach
+    void setUp() {
+        missionRepository = mock(MissionRepository.class);
+        UtilisateurRepository utilisateurRepository = mock(UtilisateurRepository.class);
+        SwipeRepository swipeRepository = mock(SwipeRepository.class);
+        ClientSwipeRepository clientSwipeRepository = mock(ClientSwipeRepository.class);
+        conversationService = mock(ConversationService.class);
+        broker = mock(SimpMessagingTemplate.class);
+        entityManager = mock(EntityManager.class);
+        SwipeSeenFilter seenFilter = mock(SwipeSeenFilter.class);
+        SwipeIngestionQueue ingestionQueue = mock(SwipeIngestionQueue.class);
+
+        Utilisateur client = user(CLIENT_ID, Utilisateur.TypeUtilisateur.CLIENT);
+        mission = new Mission();
+        mission.setId(MISSION_ID);
+        mission.setClient(client);
+        mission.setStatut(Mission.Statut.EN_ATTENTE);
+
+        when(missionRepository.findById(MISSION_ID)).thenReturn(Optional.of(mission));
+        when(utilisateurRepository.findById(anyLong())).thenAnswer(inv -> {
+            long id = inv.getArgument(0);
+            return Optional.of(id == CLIENT_ID ? client : user(id, Utilisateur.TypeUtilisateur.FREELANCE));
+        });
+        when(swipeRepository.saveAndFlush(any(Swipe.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ClientSwipe clientLike = new ClientSwipe();
+        clientLike.setDecision(Swipe.Decision.LIKE);
+        when(clientSwipeRepository.findByClientIdAndMissionIdAndFreelanceId(eq(CLIENT_ID), eq(MISSION_ID), anyLong()))
+                .thenReturn(Optional.of(clientLike));
+
+        Conversation conv = new Conversation();
+        conv.setId(99L);
+        when(conversationService.findOrCreate(anyLong(), anyLong(), anyLong())).thenReturn(conv);
+
+        service = new SwipeService(
+                missionRepository, utilisateurRepository, swipeRepository, clientSwipeRepository,
+                conversationService, broker, new CompetenceService(),
+                mock(MissionSkillIndex.class), mock(FreelanceDiscoveryIndex.class),
+                mock(FreelanceSummaryBulkAssembler.class), mock(ApplicationEventPublisher.class),
+                seenFilter, new SwipeIngestionProperties(), ingestionQueue,
+                mock(SwipeStatsAccumulator.class), entityManager,
+                mock(MutualLikeIndex.class), // pas encore chargé : la base (mockée) fait foi
+                Clock.systemDefaultZone());
+    }
+
+    @Test
+    void concurrentMutualLikes_exactlyOneWinner() throws Exception {
+        AtomicReference<Long> winner = new AtomicReference<>();
+        when(missionRepository.claimForFreelance(eq(MISSION_ID), any(Utilisateur.class), any()))
+                .thenAnswer(inv -> winner.compareAndSet(null, inv.<Utilisateur>getArgument(1).getId()) ? 1 : 0);
+        // refresh après le claim : la ligne relue porte le freelance gagnant
+        doAnswer(inv -> {
+            Long id = winner.get();
+            if (id != null) inv.<Mission>getArgument(0)
+                    .setFreelanceSelectionne(user(id, Utilisateur.TypeUtilisateur.FREELANCE));
+            return null;
+        }).when(entityManager).refresh(any(Mission.class));
+
+        ExecutorService pool = Executors.newFixedThreadPool(FREELANCES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Swipe>> results = new ArrayList<>();
+        for (int i = 0; i < FREELANCES; i++) {
+            long freelanceId = 100L + i;
+            results.add(pool.submit(() -> {
+                start.await();
+                return service.swipeMission(freelanceId, MISSION_ID, Swipe.Decision.LIKE);
+            }));
+        }
+        start.countDown();
+
+        int won = 0, lost = 0;
+        for (Future<Swipe> f : results) {
+            try {
+                Swipe s = f.get(10, TimeUnit.SECONDS);
+                assertTrue(s.getAGenereMatch());
+                won++;
+            } catch (java.util.concurrent.ExecutionException ex) {
+                assertInstanceOf(MissionAlreadyMatchedException.class, ex.getCause());
+                lost++;
+            }
+        }
+        pool.shutdownNow();
+
+        assertEquals(1, won);
+        assertEquals(FREELANCES - 1, lost);
+        assertNotNull(winner.get());
+        verify(conversationService, times(1)).findOrCreate(MISSION_ID, CLIENT_ID, winner.get());
+        verify(broker, times(2)).convertAndSendToUser(anyString(), eq("/queue/matches"), any());
+    }
+
+    @Test
+    void lostClaim_missionHeldByAnotherFreelance_throws() {
+        when(missionRepository.claimForFreelance(eq(MISSION_ID), any(Utilisateur.class), any())).thenReturn(0);
+        doAnswer(inv -> {
+            inv.<Mission>getArgument(0).setFreelanceSelectionne(user(200L, Utilisateur.TypeUtilisateur.FREELANCE));
+            return null;
+        }).when(entityManager).refresh(any(Mission.class));
+
+        assertThrows(MissionAlreadyMatchedException.class,
+                () -> service.swipeMission(100L, MISSION_ID, Swipe.Decision.LIKE));
+        verifyNoInteractions(conversationService, broker);
+    }
+
+    @Test
+    void lostClaim_missionHeldBySameFreelance_matchWithoutSecondNotification() {
+        // LIKE client concurrent du même couple : l'autre transaction a attribué et notifié
+        when(missionRepository.claimForFreelance(eq(MISSION_ID), any(Utilisateur.class), any())).thenReturn(0);
+        doAnswer(inv -> {
+            inv.<Mission>getArgument(0).setFreelanceSelectionne(user(100L, Utilisateur.TypeUtilisateur.FREELANCE));
+            return null;
+        }).when(entityManager).refresh(any(Mission.class));
+
+        Swipe s = service.swipeMission(100L, MISSION_ID, Swipe.Decision.LIKE);
+
+        assertTrue(s.getAGenereMatch());
+        verifyNoInteractions(conversationService, broker);
+    }
+
+    private static Utilisateur user(long id, Utilisateur.TypeUtilisateur type) {
+        Utilisateur u = new Utilisateur();
+        u.setId(id);
+        u.setTypeUtilisateur(type);
+        u.setEmail("u" + id + "@test.tn");
+        return u;
+    }
+}